@@ -0,0 +1,567 @@
+package AStar_Solved.main;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Contraction Hierarchies built once over a Graph, answering shortest route queries in a
+ * fraction of the time of a Dijkstra search over the Graph.
+ * <br>The build contracts the nodes one at a time, from the least to the most important one.
+ * Contracting a node removes it from the remaining graph, and adds a shortcut edge u -&gt; x
+ * for each route u -&gt; node -&gt; x that no other route of the remaining graph (a witness)
+ * is as short as. The importance of a node is mostly its edge difference: the number of
+ * shortcuts its contraction adds minus the number of edges it removes. The number of its
+ * neighbors already contracted is added to it, which spreads the contractions evenly across
+ * the graph. The importance of the neighbors is updated after each contraction. Edges carry
+ * the straight-line length of the street segment, shortcuts the sum of the lengths they stand for.
+ * <br>A query runs a bidirectional Dijkstra search which only follows the edges leading to
+ * more important nodes: upwards from the start, and upwards (over reversed edges) from the
+ * target. Both searches meet at the most important node of the shortest route, and settle few
+ * nodes each. The route found is then unpacked, replacing each shortcut by the two edges it
+ * stands for, down to the edges of the Graph.
+ * <br>The hierarchy is a snapshot: changes made to the Graph after the build are not reflected.
+ */
+public class ContractionHierarchy {
+    // Maximum number of nodes settled by a witness search, beyond which a shortcut is added
+    // without looking further: the shortcut may not be needed but routes stay correct.
+    private static final int _WITNESS_SETTLE_LIMIT = 500;
+
+    // Label of each node id, and id of each label
+    private String[] _labels;
+    private Map<String, Integer> _ids;
+    // Number of shortcut edges added by the build
+    private int _shortcutCount;
+
+    // Edges u -> x leading up the hierarchy (x contracted after u), grouped by u
+    private int[] _upOffsets;
+    private int[] _upTargets;
+    private double[] _upWeights;
+    private int[] _upMiddles;
+    // Edges u -> x leading down the hierarchy (u contracted after x), grouped by x
+    private int[] _downOffsets;
+    private int[] _downSources;
+    private double[] _downWeights;
+    private int[] _downMiddles;
+
+    // State of the forward and backward searches, reused by all queries
+    private Search _forward;
+    private Search _backward;
+    // Count of all the queue.add() calls, as a measure of algorithm complexity
+    private int _queueAddCount;
+    // Distance traveled during the last route calculation as a measure of algorithm optimality
+    private double _traveledDistance;
+
+    /**
+     * Binary min-heap of node ids, ordered by their key in a distance array and keeping
+     * track of the slot of each node, for decrease-key.
+     */
+    private static class NodeHeap {
+        private int[] _nodes;
+        // slot of each node + 1, or 0 if the node is not in the heap
+        private int[] _slots;
+        private int _size;
+        private double[] _keys;
+
+        private NodeHeap(int capacity, double[] keys) {
+            _nodes = new int[capacity];
+            _slots = new int[capacity];
+            _size = 0;
+            _keys = keys;
+        }
+
+        private boolean isEmpty() {
+            return _size == 0;
+        }
+
+        private boolean contains(int node) {
+            return _slots[node] != 0;
+        }
+
+        private int peek() {
+            return _nodes[0];
+        }
+
+        private void add(int node) {
+            _nodes[_size] = node;
+            _slots[node] = _size + 1;
+            _size++;
+            siftUp(_size - 1);
+        }
+
+        private void decreaseKey(int node) {
+            siftUp(_slots[node] - 1);
+        }
+
+        private void update(int node) {
+            siftUp(_slots[node] - 1);
+            siftDown(_slots[node] - 1);
+        }
+
+        private int remove() {
+            int node = _nodes[0];
+            _slots[node] = 0;
+            _size--;
+            if (_size > 0) {
+                _nodes[0] = _nodes[_size];
+                _slots[_nodes[0]] = 1;
+                siftDown(0);
+            }
+            return node;
+        }
+
+        private void clear() {
+            for (int i = 0; i < _size; i++) {
+                _slots[_nodes[i]] = 0;
+            }
+            _size = 0;
+        }
+
+        private void siftUp(int i) {
+            int node = _nodes[i];
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (_keys[_nodes[parent]] <= _keys[node]) {
+                    break;
+                }
+                place(i, _nodes[parent]);
+                i = parent;
+            }
+            place(i, node);
+        }
+
+        private void siftDown(int i) {
+            int node = _nodes[i];
+            while (2 * i + 1 < _size) {
+                int child = 2 * i + 1;
+                if (child + 1 < _size && _keys[_nodes[child + 1]] < _keys[_nodes[child]]) {
+                    child++;
+                }
+                if (_keys[node] <= _keys[_nodes[child]]) {
+                    break;
+                }
+                place(i, _nodes[child]);
+                i = child;
+            }
+            place(i, node);
+        }
+
+        private void place(int i, int node) {
+            _nodes[i] = node;
+            _slots[node] = i + 1;
+        }
+    }
+
+    /**
+     * State of a single-direction Dijkstra search: the distance, parent and parent edge
+     * middle of each node reached. Only the nodes reached are reset between searches.
+     */
+    private static class Search {
+        private double[] _distance;
+        private int[] _parent;
+        private int[] _middle;
+        private int[] _touched;
+        private int _touchedCount;
+        private NodeHeap _heap;
+        private int _addCount;
+
+        private Search(int size) {
+            _distance = new double[size];
+            Arrays.fill(_distance, Double.POSITIVE_INFINITY);
+            _parent = new int[size];
+            _middle = new int[size];
+            _touched = new int[size];
+            _heap = new NodeHeap(size, _distance);
+        }
+
+        private void reset() {
+            for (int i = 0; i < _touchedCount; i++) {
+                _distance[_touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            _touchedCount = 0;
+            _heap.clear();
+            _addCount = 0;
+        }
+
+        private double peekDistance() {
+            return _distance[_heap.peek()];
+        }
+
+        /**
+         * Reaches the node with the given distance, if shorter than its current one.
+         */
+        private void relax(int node, double distance, int parent, int middle) {
+            if (distance >= _distance[node]) {
+                return;
+            }
+            if (_distance[node] == Double.POSITIVE_INFINITY) {
+                _touched[_touchedCount++] = node;
+            }
+            _distance[node] = distance;
+            _parent[node] = parent;
+            _middle[node] = middle;
+            if (_heap.contains(node)) {
+                _heap.decreaseKey(node);
+            } else {
+                _heap.add(node);
+                _addCount++;
+            }
+        }
+    }
+
+    /**
+     * Growable list of the edges of a node during the build: the node at the other end,
+     * the weight and the middle node of each edge (-1 for the edges of the Graph). Until the
+     * node is contracted, the list only holds the edges to the nodes not contracted yet. Once
+     * the node is contracted, the list is left as is: the edges to more important nodes.
+     */
+    private static class EdgeList {
+        private int[] _nodes = new int[4];
+        private double[] _weights = new double[4];
+        private int[] _middles = new int[4];
+        private int _size;
+
+        private int indexOf(int node) {
+            for (int k = 0; k < _size; k++) {
+                if (_nodes[k] == node) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        private void add(int node, double weight, int middle) {
+            if (_size == _nodes.length) {
+                _nodes = Arrays.copyOf(_nodes, 2 * _size);
+                _weights = Arrays.copyOf(_weights, 2 * _size);
+                _middles = Arrays.copyOf(_middles, 2 * _size);
+            }
+            set(_size++, node, weight, middle);
+        }
+
+        private void remove(int k) {
+            _size--;
+            set(k, _nodes[_size], _weights[_size], _middles[_size]);
+        }
+
+        private void set(int k, int node, double weight, int middle) {
+            _nodes[k] = node;
+            _weights[k] = weight;
+            _middles[k] = middle;
+        }
+    }
+
+    /**
+     * Builds the hierarchy of the given Graph.
+     * @param graph - the Graph to be contracted.
+     */
+    public ContractionHierarchy(Graph graph) {
+        Collection<Node> nodes = graph.getNodes();
+        int size = nodes.size();
+        _labels = new String[size];
+        _ids = new HashMap<String, Integer>();
+        for (Node node : nodes) {
+            _labels[_ids.size()] = node.getLabel();
+            _ids.put(node.getLabel(), _ids.size());
+        }
+
+        EdgeList[] out = new EdgeList[size];
+        EdgeList[] in = new EdgeList[size];
+        for (int id = 0; id < size; id++) {
+            out[id] = new EdgeList();
+            in[id] = new EdgeList();
+        }
+        for (Node node : nodes) {
+            int from = _ids.get(node.getLabel());
+            for (Node neighbor : node.getNeighbors()) {
+                int to = _ids.get(neighbor.getLabel());
+                if (from != to) {
+                    addEdge(out, in, from, to, node.getPoint().distance(neighbor.getPoint()), -1);
+                }
+            }
+        }
+
+        contract(out, in);
+        buildSearchGraphs(out, in);
+        _forward = new Search(size);
+        _backward = new Search(size);
+    }
+
+    /**
+     * Adds the edge from -> to, or lowers its weight if the edge already exists and is longer.
+     */
+    private static void addEdge(EdgeList[] out, EdgeList[] in, int from, int to, double weight, int middle) {
+        int k = out[from].indexOf(to);
+        if (k < 0) {
+            out[from].add(to, weight, middle);
+            in[to].add(from, weight, middle);
+        } else if (weight < out[from]._weights[k]) {
+            out[from].set(k, to, weight, middle);
+            in[to].set(in[to].indexOf(from), from, weight, middle);
+        }
+    }
+
+    /**
+     * Contracts all the nodes, least important first. The importance of each node is
+     * updated lazily: when a node comes out of the queue, its importance is computed again
+     * and the node goes back in the queue if it is no longer the least important one.
+     */
+    private void contract(EdgeList[] out, EdgeList[] in) {
+        int size = _labels.length;
+        int[] contractedNeighbors = new int[size];
+        Search witness = new Search(size);
+        double[] priority = new double[size];
+        NodeHeap queue = new NodeHeap(size, priority);
+        for (int node = 0; node < size; node++) {
+            priority[node] = getPriority(node, out, in, contractedNeighbors, witness);
+            queue.add(node);
+        }
+
+        while (!queue.isEmpty()) {
+            int node = queue.remove();
+            double current = getPriority(node, out, in, contractedNeighbors, witness);
+            if (!queue.isEmpty() && current > priority[queue.peek()]) {
+                priority[node] = current;
+                queue.add(node);
+                continue;
+            }
+            _shortcutCount += addShortcuts(node, out, in, witness, true);
+            // remove the node from the edge lists of its neighbors, then update their importance
+            for (int k = 0; k < out[node]._size; k++) {
+                int neighbor = out[node]._nodes[k];
+                in[neighbor].remove(in[neighbor].indexOf(node));
+            }
+            for (int k = 0; k < in[node]._size; k++) {
+                int neighbor = in[node]._nodes[k];
+                out[neighbor].remove(out[neighbor].indexOf(node));
+            }
+            for (EdgeList edges : new EdgeList[] { out[node], in[node] }) {
+                for (int k = 0; k < edges._size; k++) {
+                    int neighbor = edges._nodes[k];
+                    contractedNeighbors[neighbor]++;
+                    priority[neighbor] = getPriority(neighbor, out, in, contractedNeighbors, witness);
+                    queue.update(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the importance of the node: twice its edge difference plus the count of its
+     * contracted neighbors.
+     */
+    private double getPriority(int node, EdgeList[] out, EdgeList[] in, int[] contractedNeighbors,
+            Search witness) {
+        int removed = out[node]._size + in[node]._size;
+        int shortcuts = addShortcuts(node, out, in, witness, false);
+        return 2 * (shortcuts - removed) + contractedNeighbors[node];
+    }
+
+    /**
+     * Counts, and adds if <i>apply</i> is true, the shortcuts replacing the routes through
+     * the node: u -&gt; node -&gt; x needs a shortcut unless a witness search from u, avoiding
+     * the node, finds x at the same distance or closer.
+     * @return the number of shortcuts.
+     */
+    private int addShortcuts(int node, EdgeList[] out, EdgeList[] in, Search witness, boolean apply) {
+        double maxOut = 0;
+        for (int k = 0; k < out[node]._size; k++) {
+            maxOut = Math.max(maxOut, out[node]._weights[k]);
+        }
+        int count = 0;
+        for (int i = 0; i < in[node]._size; i++) {
+            int from = in[node]._nodes[i];
+            double toNode = in[node]._weights[i];
+            findWitnesses(from, node, toNode + maxOut, out, witness);
+            for (int j = 0; j < out[node]._size; j++) {
+                int to = out[node]._nodes[j];
+                if (to == from) {
+                    continue;
+                }
+                double viaNode = toNode + out[node]._weights[j];
+                if (witness._distance[to] > viaNode) {
+                    count++;
+                    if (apply) {
+                        addEdge(out, in, from, to, viaNode, node);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Runs a Dijkstra search from the source over the nodes not contracted yet, avoiding
+     * the excluded node, up to the given distance or until too many nodes are settled.
+     */
+    private static void findWitnesses(int source, int excluded, double limit, EdgeList[] out, Search witness) {
+        witness.reset();
+        witness.relax(source, 0, source, -1);
+        int settled = 0;
+        while (!witness._heap.isEmpty() && witness.peekDistance() <= limit && settled++ < _WITNESS_SETTLE_LIMIT) {
+            int node = witness._heap.remove();
+            for (int k = 0; k < out[node]._size; k++) {
+                int next = out[node]._nodes[k];
+                if (next != excluded) {
+                    witness.relax(next, witness._distance[node] + out[node]._weights[k], node, -1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gathers the edges of each node to more important nodes into the upward edges (out
+     * of the node) and the downward edges (into the node) searched by the queries.
+     */
+    private void buildSearchGraphs(EdgeList[] out, EdgeList[] in) {
+        int size = _labels.length;
+        _upOffsets = new int[size + 1];
+        _downOffsets = new int[size + 1];
+        for (int id = 0; id < size; id++) {
+            _upOffsets[id + 1] = _upOffsets[id] + out[id]._size;
+            _downOffsets[id + 1] = _downOffsets[id] + in[id]._size;
+        }
+        _upTargets = new int[_upOffsets[size]];
+        _upWeights = new double[_upOffsets[size]];
+        _upMiddles = new int[_upOffsets[size]];
+        _downSources = new int[_downOffsets[size]];
+        _downWeights = new double[_downOffsets[size]];
+        _downMiddles = new int[_downOffsets[size]];
+        for (int id = 0; id < size; id++) {
+            System.arraycopy(out[id]._nodes, 0, _upTargets, _upOffsets[id], out[id]._size);
+            System.arraycopy(out[id]._weights, 0, _upWeights, _upOffsets[id], out[id]._size);
+            System.arraycopy(out[id]._middles, 0, _upMiddles, _upOffsets[id], out[id]._size);
+            System.arraycopy(in[id]._nodes, 0, _downSources, _downOffsets[id], in[id]._size);
+            System.arraycopy(in[id]._weights, 0, _downWeights, _downOffsets[id], in[id]._size);
+            System.arraycopy(in[id]._middles, 0, _downMiddles, _downOffsets[id], in[id]._size);
+        }
+    }
+
+    public int size() {
+        return _labels.length;
+    }
+
+    public int getShortcutCount() {
+        return _shortcutCount;
+    }
+
+    public int getQueueAddCount() {
+        return _queueAddCount;
+    }
+
+    public double getTraveledDistance() {
+        return _traveledDistance;
+    }
+
+    public LinkedList<String> route(String fromLabel, String toLabel) {
+        // Check nodes exist in the hierarchy, otherwise throw exception
+        Integer fromId = _ids.get(fromLabel);
+        Integer toId = _ids.get(toLabel);
+        if (fromId == null || toId == null) {
+            throw new RuntimeException("Node(s) not in the graph!");
+        }
+        int from = fromId;
+        int to = toId;
+
+        _forward.reset();
+        _backward.reset();
+        _traveledDistance = 0.0;
+        _forward.relax(from, 0, from, -1);
+        _backward.relax(to, 0, to, -1);
+
+        // Search upwards from both ends, each search stopping once its closest node is
+        // farther than the shortest route found through a node reached by both searches.
+        double shortest = Double.POSITIVE_INFINITY;
+        int meetingNode = -1;
+        while (true) {
+            boolean forward = !_forward._heap.isEmpty() && _forward.peekDistance() < shortest;
+            boolean backward = !_backward._heap.isEmpty() && _backward.peekDistance() < shortest;
+            if (!forward && !backward) {
+                break;
+            }
+            if (forward && (!backward || _forward.peekDistance() <= _backward.peekDistance())) {
+                int node = _forward._heap.remove();
+                if (_forward._distance[node] + _backward._distance[node] < shortest) {
+                    shortest = _forward._distance[node] + _backward._distance[node];
+                    meetingNode = node;
+                }
+                for (int e = _upOffsets[node]; e < _upOffsets[node + 1]; e++) {
+                    _forward.relax(_upTargets[e], _forward._distance[node] + _upWeights[e], node, _upMiddles[e]);
+                }
+            } else {
+                int node = _backward._heap.remove();
+                if (_forward._distance[node] + _backward._distance[node] < shortest) {
+                    shortest = _forward._distance[node] + _backward._distance[node];
+                    meetingNode = node;
+                }
+                for (int e = _downOffsets[node]; e < _downOffsets[node + 1]; e++) {
+                    _backward.relax(_downSources[e], _backward._distance[node] + _downWeights[e], node, _downMiddles[e]);
+                }
+            }
+        }
+        _queueAddCount = _forward._addCount + _backward._addCount;
+
+        // if the searches never met, there is no route, just return null
+        if (meetingNode < 0) {
+            return null;
+        }
+
+        // Collect the edges of the route, shortcuts included: from the start up to the meeting
+        // node, then from the meeting node down to the target.
+        Deque<int[]> edges = new ArrayDeque<int[]>();
+        for (int crt = meetingNode; crt != from; crt = _forward._parent[crt]) {
+            edges.addFirst(new int[] { _forward._parent[crt], crt, _forward._middle[crt] });
+        }
+        for (int crt = meetingNode; crt != to; crt = _backward._parent[crt]) {
+            edges.addLast(new int[] { crt, _backward._parent[crt], _backward._middle[crt] });
+        }
+
+        LinkedList<String> result = new LinkedList<String>();
+        result.add(_labels[from]);
+        for (int[] edge : edges) {
+            unpack(edge, result);
+        }
+        _traveledDistance = shortest;
+
+        // Return the list with all the node labels in the route, from start to target.
+        return result;
+    }
+
+    /**
+     * Appends to the route the labels of the nodes an edge leads through, up to its end,
+     * replacing each shortcut u -&gt; x via m by the edges u -&gt; m and m -&gt; x. Both edges
+     * are found among the edges of m, the least important of the three nodes.
+     */
+    private void unpack(int[] edge, LinkedList<String> result) {
+        Deque<int[]> stack = new ArrayDeque<int[]>();
+        stack.push(edge);
+        while (!stack.isEmpty()) {
+            int[] crt = stack.pop();
+            int middle = crt[2];
+            if (middle < 0) {
+                result.add(_labels[crt[1]]);
+                continue;
+            }
+            int toMiddle = -1;
+            for (int e = _downOffsets[middle]; e < _downOffsets[middle + 1]; e++) {
+                if (_downSources[e] == crt[0]) {
+                    toMiddle = _downMiddles[e];
+                    break;
+                }
+            }
+            int fromMiddle = -1;
+            for (int e = _upOffsets[middle]; e < _upOffsets[middle + 1]; e++) {
+                if (_upTargets[e] == crt[1]) {
+                    fromMiddle = _upMiddles[e];
+                    break;
+                }
+            }
+            stack.push(new int[] { middle, crt[1], fromMiddle });
+            stack.push(new int[] { crt[0], middle, toMiddle });
+        }
+    }
+}
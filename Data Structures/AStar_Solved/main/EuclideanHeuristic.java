@@ -0,0 +1,12 @@
+package AStar_Solved.main;
+
+/**
+ * Straight-line distance between the node and the target: no route can be shorter.
+ */
+public class EuclideanHeuristic implements Heuristic {
+
+    @Override
+    public double estimate(Node node, Node target) {
+        return node.getPoint().distance(target.getPoint());
+    }
+}
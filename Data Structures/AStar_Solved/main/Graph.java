@@ -1,7 +1,11 @@
 package AStar_Solved.main;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.TreeMap;
 
 /**
@@ -15,6 +19,8 @@ public class Graph {
     private Map<String, Node> _nodes;
     // Count of all the queue.add() calls, as a measure of algorithm complexity
     private int _queueAddCount;
+    // Count of the closed nodes reopened by the last A* route calculation, 0 for a consistent heuristic
+    private int _reopenCount;
     // Distance traveled during the last route calculation as a measure of algorithm optimality
     private double _traveledDistance;
     
@@ -26,19 +32,29 @@ public class Graph {
         return _nodes.size();
     }
 
+    Collection<Node> getNodes() {
+        return _nodes.values();
+    }
+
     public int getQueueAddCount() {
         return _queueAddCount;
     }
 
+    public int getReopenCount() {
+        return _reopenCount;
+    }
+
     public double getTraveledDistance() {
         return _traveledDistance;
     }
     
     private void reset() {
         _queueAddCount = 0;
+        _reopenCount = 0;
         _traveledDistance = 0.0;
         for (Node n : _nodes.values()) {
             n.setState(null);
+            n.setBackwardState(null);
         }
     }
     
@@ -56,9 +72,13 @@ public class Graph {
         if (node == null) {
             throw new RuntimeException("Node does not exist in graph!");
         }
-        for(Node n : _nodes.values()) {
+        // unlink the node from both ends of its edges, through its in-neighbors and neighbors
+        for(Node n : node.getInNeighbors()) {
             n.removeNeighbor(node);
         }
+        for(Node n : node.getNeighbors()) {
+            node.removeNeighbor(n);
+        }
         _nodes.remove(node.getLabel());
         return node.getPoint();
     }
@@ -166,8 +186,9 @@ public class Graph {
         reset();
 
         // Mark fromNode Node (set its state) with a reference to itself and add it to a queue
-        fromNode.setState(fromNode, toNode);
-        Queue<Node> queue = new LinkedList<Node>();
+        // ordered by the distance traveled so far.
+        fromNode.setState(fromNode);
+        IndexedHeapPriorityQueue<Node> queue = new IndexedHeapPriorityQueue<Node>(Node.class);
         queue.add(fromNode);
         _queueAddCount++;
 
@@ -184,10 +205,20 @@ public class Graph {
             }
             // We're not done, so loop through all the neighbors of node.
             for(Node neighbor : node.getNeighbors()) {
-                // If node had already been visited (it's state is not null), just skip it
+                // If node had already been removed from the queue, its distance is final, just skip it
+                boolean discovered = neighbor.getState() != null;
+                if (discovered && !queue.contains(neighbor)) {
+                    continue;
+                }
+                // Otherwise, if this node offers a shorter route to it, update it in the queue
+                // or add it to the queue the first time it is discovered.
                 if (neighbor.setState(node)) {
-                    queue.add(neighbor);
-                    _queueAddCount++;
+                    if (discovered) {
+                        queue.decreaseKey(neighbor);
+                    } else {
+                        queue.add(neighbor);
+                        _queueAddCount++;
+                    }
                 }
             }
         }
@@ -211,6 +242,10 @@ public class Graph {
     }
 
     public LinkedList<String> routeAStar(String fromLabel, String toLabel) {
+        return routeAStar(fromLabel, toLabel, new EuclideanHeuristic());
+    }
+
+    public LinkedList<String> routeAStar(String fromLabel, String toLabel, Heuristic heuristic) {
         // Check nodes exist in the graph, otherwise throw exception
         Node fromNode = _nodes.get(fromLabel);
         Node toNode = _nodes.get(toLabel);
@@ -221,33 +256,52 @@ public class Graph {
         // Reset all Node states to null
         reset();
 
-        // Mark fromNode Node (set its state) with a reference to itself and add it to a queue
-        fromNode.setState(fromNode);
-        PriorityQueue<Node> queue = new HeapPriorityQueue<Node>(Node.class);
-        queue.add(fromNode);
+        // Mark fromNode Node (set its state) with a reference to itself and add it to the open set:
+        // a queue ordered by the distance so far (g-score) plus the estimated distance left to the
+        // target (heuristic). Nodes removed from the open set go into the closed set, and are only
+        // reopened if they are reached again through a strictly shorter route.
+        fromNode.setState(fromNode, toNode, heuristic);
+        IndexedHeapPriorityQueue<Node> open = new IndexedHeapPriorityQueue<Node>(Node.class);
+        Set<Node> closed = new HashSet<Node>();
+        open.add(fromNode);
         _queueAddCount++;
 
         // We start with a boolean tracking whether we found the route or not (initially false)..
         boolean found = false;
-        // .. then we loop until the queue is emptied out.
-        while(!queue.isEmpty()) {
-            // Remove the first node from the queue.
-            Node node = queue.remove();
+        // .. then we loop until the open set is emptied out.
+        while(!open.isEmpty()) {
+            // Remove the node with the lowest estimated cost from the open set and close it.
+            Node node = open.remove();
+            closed.add(node);
             // If the node is the target, we're done, mark that we found the route and break out.
+            // The heuristic never overestimates the distance left to travel and never decreases
+            // by more than the length of an edge (it is consistent), so no other route to the
+            // target can be shorter than the one it was reached through.
             if (node == toNode) {
                 found = true;
                 break;
             }
-            // We're not done, so loop through all the neighbors of node.
+            // We're not done, so loop through all the neighbors of node and check whether
+            // this node offers a shorter route (lower g-score) to any of them.
             for(Node neighbor : node.getNeighbors()) {
-                // If node had already been visited (it's state is not null), just skip it
-                if (neighbor.getState() != null) {
+                // Skip the neighbor unless this node strictly lowers its g-score.
+                if (!neighbor.setState(node, toNode, heuristic)) {
                     continue;
                 }
-                // Otherwise mark it with a reference to this node and add it to the queue.
-                neighbor.setState(node, toNode);
-                queue.add(neighbor);
-                _queueAddCount++;
+                if (closed.remove(neighbor)) {
+                    // The neighbor was closed but is reached now through a shorter route, which
+                    // only happens with an inconsistent heuristic: reopen it to propagate the route.
+                    open.add(neighbor);
+                    _queueAddCount++;
+                    _reopenCount++;
+                } else if (open.contains(neighbor)) {
+                    // The neighbor is waiting in the open set, move it up in the queue.
+                    open.decreaseKey(neighbor);
+                } else {
+                    // The neighbor is newly discovered, add it to the open set.
+                    open.add(neighbor);
+                    _queueAddCount++;
+                }
             }
         }
 
@@ -268,4 +322,106 @@ public class Graph {
         // Return the list with all the node labels in the route, from start to target.
         return result;
     }
+
+    public LinkedList<String> routeBidirectional(String fromLabel, String toLabel) {
+        // Check nodes exist in the graph, otherwise throw exception
+        Node fromNode = _nodes.get(fromLabel);
+        Node toNode = _nodes.get(toLabel);
+        if (fromNode == null || toNode == null) {
+            throw new RuntimeException("Node(s) not in the graph!");
+        }
+
+        // Reset all Node states to null
+        reset();
+
+        // Run two Dijkstra searches at once: a forward one from fromNode, following the edges, and a
+        // backward one from toNode, following the edges in reverse. The forward queue is ordered by
+        // the distance so far, the backward queue by the distance left to go to the target.
+        fromNode.setState(fromNode);
+        IndexedHeapPriorityQueue<Node> forward = new IndexedHeapPriorityQueue<Node>(Node.class);
+        forward.add(fromNode);
+        _queueAddCount++;
+        toNode.setBackwardState(toNode);
+        IndexedHeapPriorityQueue<Node> backward = new IndexedHeapPriorityQueue<Node>(Node.class,
+            Comparator.comparingDouble(Node::getDistanceToGo));
+        backward.add(toNode);
+        _queueAddCount++;
+
+        // Track the shortest route found so far, through the node where the two searches met.
+        Node meetingNode = (fromNode == toNode) ? fromNode : null;
+        double shortest = (fromNode == toNode) ? 0 : Double.POSITIVE_INFINITY;
+        // Loop until either search runs out of nodes, or until the nodes left in the two queues
+        // cannot be joined into a route shorter than the shortest one found.
+        while(!forward.isEmpty() && !backward.isEmpty()) {
+            double forwardMin = forward.peek().getDistanceSoFar();
+            double backwardMin = backward.peek().getDistanceToGo();
+            if (forwardMin + backwardMin >= shortest) {
+                break;
+            }
+            // Advance the search whose next node is the closest to its origin.
+            if (forwardMin <= backwardMin) {
+                Node node = forward.remove();
+                for(Node neighbor : node.getNeighbors()) {
+                    // If node had already been removed from the queue, its distance is final, just skip it
+                    boolean discovered = neighbor.getState() != null;
+                    if ((discovered && !forward.contains(neighbor)) || !neighbor.setState(node)) {
+                        continue;
+                    }
+                    if (discovered) {
+                        forward.decreaseKey(neighbor);
+                    } else {
+                        forward.add(neighbor);
+                        _queueAddCount++;
+                    }
+                    // If the backward search reached the neighbor too, the two searches meet there.
+                    if (neighbor.getBackwardState() != null
+                            && neighbor.getDistanceSoFar() + neighbor.getDistanceToGo() < shortest) {
+                        shortest = neighbor.getDistanceSoFar() + neighbor.getDistanceToGo();
+                        meetingNode = neighbor;
+                    }
+                }
+            } else {
+                Node node = backward.remove();
+                for(Node inNeighbor : node.getInNeighbors()) {
+                    boolean discovered = inNeighbor.getBackwardState() != null;
+                    if ((discovered && !backward.contains(inNeighbor)) || !inNeighbor.setBackwardState(node)) {
+                        continue;
+                    }
+                    if (discovered) {
+                        backward.decreaseKey(inNeighbor);
+                    } else {
+                        backward.add(inNeighbor);
+                        _queueAddCount++;
+                    }
+                    if (inNeighbor.getState() != null
+                            && inNeighbor.getDistanceSoFar() + inNeighbor.getDistanceToGo() < shortest) {
+                        shortest = inNeighbor.getDistanceSoFar() + inNeighbor.getDistanceToGo();
+                        meetingNode = inNeighbor;
+                    }
+                }
+            }
+        }
+
+        // if the searches never met, there is no route, just return null
+        if (meetingNode == null) {
+            return null;
+        }
+
+        // Retrace the route from the meeting node back to the start, using the forward state,
+        // then on to the target, using the backward state.
+        LinkedList<String> result = new LinkedList<String>();
+        for(Node crt = meetingNode; crt != fromNode; crt = crt.getState()) {
+            result.add(0, crt.getLabel());
+        }
+        result.add(0, fromNode.getLabel());
+        for(Node crt = meetingNode; crt != toNode; ) {
+            crt = crt.getBackwardState();
+            result.add(crt.getLabel());
+        }
+
+        _traveledDistance = shortest;
+
+        // Return the list with all the node labels in the route, from start to target.
+        return result;
+    }
 }
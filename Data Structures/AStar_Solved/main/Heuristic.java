@@ -0,0 +1,11 @@
+package AStar_Solved.main;
+
+/**
+ * Estimate of the distance left to travel from a node to the target of a route, guiding
+ * the A* search towards the target. For the routes found to be the shortest ones, the
+ * estimate must never exceed the actual distance (be admissible), and must not drop by
+ * more than the length of an edge from one end of the edge to the other (be consistent).
+ */
+public interface Heuristic {
+    double estimate(Node node, Node target);
+}
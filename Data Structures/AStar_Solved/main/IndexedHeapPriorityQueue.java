@@ -0,0 +1,185 @@
+package AStar_Solved.main;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary min-heap keeping track of the slot of each of its elements, such that an element
+ * can be found in O(1) and moved up in O(log n) after its key was lowered. An element can be
+ * in the queue at most once, which lets a router update a node already waiting in the queue
+ * instead of adding it again.
+ */
+public class IndexedHeapPriorityQueue<E extends Comparable<E>> implements PriorityQueue<E> {
+
+    private E[] elements;
+    private int size;
+    // slot of each element in the elements array
+    private Map<E, Integer> slots;
+    private Comparator<E> comparator;
+
+    // #region: Helper methods
+    private int parent(int index) {
+        return index/2;
+    }
+
+    private int leftChild(int index) {
+        return index * 2;
+    }
+
+    private int rightChild(int index) {
+        return index * 2 + 1;
+    }
+
+    private boolean hasParent(int index) {
+        return index > 1;
+    }
+
+    private boolean hasLeftChild(int index) {
+        return leftChild(index) <= size;
+    }
+
+    private boolean hasRightChild(int index) {
+        return rightChild(index) <= size;
+    }
+
+    private void swap(int index1, int index2) {
+        E temp = elements[index1];
+        elements[index1] = elements[index2];
+        elements[index2] = temp;
+        slots.put(elements[index1], index1);
+        slots.put(elements[index2], index2);
+    }
+
+    private void checkResize(int i) {
+        if (i >= elements.length) {
+            elements = Arrays.copyOf(elements, 2 * elements.length);
+        }
+    }
+
+    private void bubbleUp(int i) {
+        // bubble the value up until the parent becomes smaller
+        while (hasParent(i)) {
+            int iParent = parent(i);
+            if (comparator.compare(elements[iParent], elements[i]) <= 0) {
+                break;
+            }
+            swap(i, iParent);
+            i = iParent;
+        }
+    }
+
+    private void pushDown(int i) {
+        // push down the value for as long as either of its children is smaller than itself.
+        while(hasLeftChild(i)){
+            int iChild = leftChild(i);
+            if (hasRightChild(i) && comparator.compare(elements[rightChild(i)], elements[leftChild(i)]) < 0) {
+                iChild = rightChild(i);
+            }
+            if (comparator.compare(elements[i], elements[iChild]) < 0) {
+                break;
+            }
+            swap(i, iChild);
+            i = iChild;
+        }
+    }
+    // #endregion: Helper methods
+
+    public IndexedHeapPriorityQueue(Class<E> eClass) {
+        this(eClass, Comparator.naturalOrder());
+    }
+
+    /**
+     * Creates a queue ordering its elements by the given comparator instead of their
+     * natural order, e.g. to order the same elements by different keys in two queues.
+     * @param eClass - the class of the elements.
+     * @param comparator - the order of the elements.
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedHeapPriorityQueue(Class<E> eClass, Comparator<E> comparator) {
+        elements = (E[]) Array.newInstance(eClass, 2);
+        size = 0;
+        slots = new HashMap<E, Integer>();
+        this.comparator = comparator;
+    }
+
+    @Override
+    public void add(E value) {
+        if (slots.containsKey(value)) {
+            throw new RuntimeException("Element already in the queue!");
+        }
+        // add the value to the end of the array and resize as needed
+        int i = size + 1;
+        checkResize(i);
+        elements[i] = value;
+        slots.put(value, i);
+        size++;
+        bubbleUp(i);
+    }
+
+    /**
+     * Checks whether the value is waiting in the queue, in O(1).
+     * @param value - the value to look for.
+     * @return true if the value is in the queue, false otherwise.
+     */
+    public boolean contains(E value) {
+        return slots.containsKey(value);
+    }
+
+    /**
+     * Restores the order of the queue after the key of a value it contains was lowered,
+     * by moving the value up towards the root, in O(log n).
+     * @param value - the value whose key was lowered.
+     * @throws RuntimeException if the value is not in the queue.
+     */
+    public void decreaseKey(E value) {
+        Integer i = slots.get(value);
+        if (i == null) {
+            throw new RuntimeException("Element not in the queue!");
+        }
+        bubbleUp(i);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 1; i <= size; i++) {
+            elements[i] = null;
+        }
+        slots.clear();
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public E peek() {
+        return size > 0 ? elements[1] : null;
+    }
+
+    @Override
+    public E remove() {
+        // return null if there's nothing to remove
+        if (isEmpty()) {
+            return null;
+        }
+
+        // save the root, bring the last element in its place and push it down
+        E elem = elements[1];
+        swap(1, size);
+        elements[size] = null;
+        slots.remove(elem);
+        size--;
+        pushDown(1);
+        return elem;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
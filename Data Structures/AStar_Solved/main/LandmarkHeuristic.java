@@ -0,0 +1,274 @@
+package AStar_Solved.main;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * ALT heuristic (A*, Landmarks, Triangle inequality): the distances from and to a few
+ * landmark nodes are computed once, and give lower bounds of the distance between any two
+ * nodes. For a landmark L, the triangle inequality gives:
+ * <pre>
+ * d(node, target) &gt;= d(L, target) - d(L, node)
+ * d(node, target) &gt;= d(node, L) - d(target, L)
+ * </pre>
+ * and the estimate is the largest of these bounds over all the landmarks. Unlike the
+ * straight-line distance, the bounds account for the detours the roads force on a route,
+ * so the estimates are closer to the actual distances and A* explores fewer nodes. The
+ * bounds are best for targets lying behind a landmark, so the landmarks are picked on the
+ * edges of the graph, either:<br>
+ * - FARTHEST: each landmark is the node farthest from the landmarks picked before it;<br>
+ * - AVOID: each landmark is picked where the current landmarks give the weakest bounds:
+ * at the end of the branch of a shortest route tree whose nodes have the largest gaps
+ * between their distance from the root and its lower bound.<br>
+ * The distance tables are a snapshot: nodes added to the Graph after the heuristic was built
+ * are estimated at 0, which is still admissible.
+ */
+public class LandmarkHeuristic implements Heuristic {
+
+    public enum Strategy {
+        FARTHEST,
+        AVOID
+    }
+
+    // Seed of the pseudo-random picks, such that the same Graph always gets the same landmarks
+    private static final long _SEED = 1;
+
+    // Id of each node
+    private Map<Node, Integer> _ids;
+    // Edges of each node id in CSR form, out of the node (forward) and into the node (backward)
+    private int[] _outOffsets;
+    private int[] _outTargets;
+    private double[] _outWeights;
+    private int[] _inOffsets;
+    private int[] _inSources;
+    private double[] _inWeights;
+
+    // Landmark node ids
+    private int[] _landmarks;
+    // Distances from each landmark to each node, and from each node to each landmark,
+    // infinite if there is no route
+    private double[][] _fromLandmark;
+    private double[][] _toLandmark;
+
+    /**
+     * Picks the landmarks of the Graph and computes their distance tables.
+     * @param graph - the Graph whose routes are to be estimated.
+     * @param count - the number of landmarks.
+     * @param strategy - the way landmarks are picked.
+     */
+    public LandmarkHeuristic(Graph graph, int count, Strategy strategy) {
+        Collection<Node> nodes = graph.getNodes();
+        int size = nodes.size();
+        _ids = new HashMap<Node, Integer>();
+        for (Node node : nodes) {
+            _ids.put(node, _ids.size());
+        }
+        buildEdges(nodes);
+
+        count = Math.min(count, size);
+        _landmarks = new int[count];
+        _fromLandmark = new double[count][];
+        _toLandmark = new double[count][];
+        Random random = new Random(_SEED);
+        for (int i = 0; i < count; i++) {
+            int landmark = (strategy == Strategy.FARTHEST) ? pickFarthest(i, random) : pickAvoid(i, random);
+            _landmarks[i] = landmark;
+            _fromLandmark[i] = getDistances(landmark, _outOffsets, _outTargets, _outWeights, null);
+            _toLandmark[i] = getDistances(landmark, _inOffsets, _inSources, _inWeights, null);
+        }
+    }
+
+    private void buildEdges(Collection<Node> nodes) {
+        int size = nodes.size();
+        _outOffsets = new int[size + 1];
+        _inOffsets = new int[size + 1];
+        for (Node node : nodes) {
+            _outOffsets[_ids.get(node) + 1] = node.getNeighbors().size();
+            _inOffsets[_ids.get(node) + 1] = node.getInNeighbors().size();
+        }
+        for (int id = 0; id < size; id++) {
+            _outOffsets[id + 1] += _outOffsets[id];
+            _inOffsets[id + 1] += _inOffsets[id];
+        }
+        _outTargets = new int[_outOffsets[size]];
+        _outWeights = new double[_outOffsets[size]];
+        _inSources = new int[_inOffsets[size]];
+        _inWeights = new double[_inOffsets[size]];
+        for (Node node : nodes) {
+            int id = _ids.get(node);
+            int k = _outOffsets[id];
+            for (Node neighbor : node.getNeighbors()) {
+                _outTargets[k] = _ids.get(neighbor);
+                _outWeights[k++] = node.getPoint().distance(neighbor.getPoint());
+            }
+            k = _inOffsets[id];
+            for (Node inNeighbor : node.getInNeighbors()) {
+                _inSources[k] = _ids.get(inNeighbor);
+                _inWeights[k++] = inNeighbor.getPoint().distance(node.getPoint());
+            }
+        }
+    }
+
+    /**
+     * Computes the distances from the source to all nodes through a Dijkstra search over
+     * the given edges. If a tree array is given, it receives the parent of each node in the
+     * search tree (tree[0]) and the nodes in the order they were settled (tree[1]).
+     */
+    private double[] getDistances(int source, int[] offsets, int[] targets, double[] weights, int[][] tree) {
+        int size = offsets.length - 1;
+        double[] distance = new double[size];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        int[] parent = new int[size];
+        int[] order = new int[size];
+        int settled = 0;
+        IndexedHeapPriorityQueue<Integer> queue = new IndexedHeapPriorityQueue<Integer>(Integer.class,
+            (a, b) -> Double.compare(distance[a], distance[b]));
+        distance[source] = 0;
+        parent[source] = -1;
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int node = queue.remove();
+            order[settled++] = node;
+            for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+                int next = targets[k];
+                double d = distance[node] + weights[k];
+                if (d < distance[next]) {
+                    boolean queued = distance[next] != Double.POSITIVE_INFINITY;
+                    distance[next] = d;
+                    parent[next] = node;
+                    if (queued) {
+                        queue.decreaseKey(next);
+                    } else {
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+        if (tree != null) {
+            tree[0] = parent;
+            tree[1] = Arrays.copyOf(order, settled);
+        }
+        return distance;
+    }
+
+    /**
+     * Picks the node farthest from the landmarks picked so far, or from a random node for
+     * the first landmark. Nodes none of them reach come first, having no bound at all.
+     */
+    private int pickFarthest(int picked, Random random) {
+        int size = _ids.size();
+        double[] nearest = new double[size];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        if (picked == 0) {
+            nearest = getDistances(random.nextInt(size), _outOffsets, _outTargets, _outWeights, null);
+        }
+        for (int i = 0; i < picked; i++) {
+            for (int id = 0; id < size; id++) {
+                nearest[id] = Math.min(nearest[id], _fromLandmark[i][id]);
+            }
+        }
+        int farthest = -1;
+        for (int id = 0; id < size; id++) {
+            if (isLandmark(id, picked)) {
+                continue;
+            }
+            if (farthest < 0 || nearest[id] > nearest[farthest]) {
+                farthest = id;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * Picks the node at the end of the shortest route tree branch, from a random root, whose
+     * nodes are the worst covered by the landmarks picked so far. Branches already holding a
+     * landmark are left out.
+     */
+    private int pickAvoid(int picked, Random random) {
+        int size = _ids.size();
+        int root = random.nextInt(size);
+        int[][] tree = new int[2][];
+        double[] distance = getDistances(root, _outOffsets, _outTargets, _outWeights, tree);
+        int[] parent = tree[0];
+        int[] order = tree[1];
+
+        // weight of each node: how much its lower bound underestimates its distance from the root.
+        // size of each node: total weight of its subtree, 0 if the subtree holds a landmark.
+        double[] weight = new double[size];
+        boolean[] covered = new boolean[size];
+        for (int node : order) {
+            weight[node] = distance[node] - getBound(root, node, picked);
+            covered[node] = isLandmark(node, picked);
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int node = order[i];
+            covered[parent[node]] |= covered[node];
+            weight[parent[node]] += weight[node];
+        }
+        // walk down the tree from the root, into the uncovered child having the largest size
+        int[] bestChild = new int[size];
+        Arrays.fill(bestChild, -1);
+        for (int i = 1; i < order.length; i++) {
+            int node = order[i];
+            int best = bestChild[parent[node]];
+            if (!covered[node] && (best < 0 || weight[node] > weight[best])) {
+                bestChild[parent[node]] = node;
+            }
+        }
+        int node = root;
+        while (bestChild[node] >= 0) {
+            node = bestChild[node];
+        }
+        if (isLandmark(node, picked)) {
+            // the whole tree is covered: fall back to the farthest node
+            return pickFarthest(picked, random);
+        }
+        return node;
+    }
+
+    private boolean isLandmark(int id, int picked) {
+        for (int i = 0; i < picked; i++) {
+            if (_landmarks[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the largest lower bound of the distance from a node to the target, given by
+     * the first <i>count</i> landmarks.
+     */
+    private double getBound(int node, int target, int count) {
+        double bound = 0;
+        for (int i = 0; i < count; i++) {
+            double[] from = _fromLandmark[i];
+            double[] to = _toLandmark[i];
+            // bounds involving a node a landmark cannot reach, or be reached from, are skipped
+            if (from[target] != Double.POSITIVE_INFINITY && from[node] != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, from[target] - from[node]);
+            }
+            if (to[node] != Double.POSITIVE_INFINITY && to[target] != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, to[node] - to[target]);
+            }
+        }
+        return bound;
+    }
+
+    public int getLandmarkCount() {
+        return _landmarks.length;
+    }
+
+    @Override
+    public double estimate(Node node, Node target) {
+        Integer nodeId = _ids.get(node);
+        Integer targetId = _ids.get(target);
+        if (nodeId == null || targetId == null) {
+            return 0;
+        }
+        return getBound(nodeId, targetId, _landmarks.length);
+    }
+}
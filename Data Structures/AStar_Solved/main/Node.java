@@ -5,16 +5,24 @@ import java.util.LinkedList;
 import java.util.Map;
 
 public class Node implements Comparable<Node> {
+    private static final Heuristic _EUCLIDEAN = new EuclideanHeuristic();
+
     private Point _point;
     private Map<String, Node> _neighbors;
+    private Map<String, Node> _inNeighbors;
 
     private Node _previous;
     private double _distanceSoFar;
     private double _cost;
+
+    // state of the backward search, from the target towards this node
+    private Node _next;
+    private double _distanceToGo;
     
     public Node(Point data) {
         _point = data;
         _neighbors = new HashMap<String, Node>();
+        _inNeighbors = new HashMap<String, Node>();
         _previous = null;
         _distanceSoFar = 0;
         _cost = 0;
@@ -45,33 +53,72 @@ public class Node implements Comparable<Node> {
         if (_previous == null || distanceSoFar < _distanceSoFar) {
             _previous = previous;
             _distanceSoFar = distanceSoFar;
-            _cost = 0;
+            _cost = distanceSoFar;
             return true;
         }
         return false;
     }
 
-    public void setState(Node previous, Node target) {
-        _previous = previous;
-        _distanceSoFar = previous._distanceSoFar + _point.distance(previous._point);
-        _cost = _distanceSoFar + _point.distance(target._point);
+    public boolean setState(Node previous, Node target) {
+        return setState(previous, target, _EUCLIDEAN);
+    }
+
+    public boolean setState(Node previous, Node target, Heuristic heuristic) {
+        double distanceSoFar = previous._distanceSoFar + _point.distance(previous._point);
+        if (_previous == null || distanceSoFar < _distanceSoFar) {
+            _previous = previous;
+            _distanceSoFar = distanceSoFar;
+            _cost = _distanceSoFar + heuristic.estimate(this, target);
+            return true;
+        }
+        return false;
     }
 
     public double getDistanceSoFar() {
         return _distanceSoFar;
     }
 
+    public Node getBackwardState() {
+        return _next;
+    }
+
+    public boolean setBackwardState(Node next) {
+        if (next == null) {
+            _next = null;
+            _distanceToGo = 0;
+            return true;
+        }
+
+        double distanceToGo = next._distanceToGo + _point.distance(next._point);
+        if (_next == null || distanceToGo < _distanceToGo) {
+            _next = next;
+            _distanceToGo = distanceToGo;
+            return true;
+        }
+        return false;
+    }
+
+    public double getDistanceToGo() {
+        return _distanceToGo;
+    }
+
     public void addNeighbor(Node otherNode) {
         _neighbors.put(otherNode.getLabel(), otherNode);
+        otherNode._inNeighbors.put(getLabel(), this);
     }
 
     public void removeNeighbor(Node otherNode) {
         _neighbors.remove(otherNode.getLabel());
+        otherNode._inNeighbors.remove(getLabel());
     }
 
     public Collection<Node> getNeighbors() {
         return new LinkedList<Node>(_neighbors.values());
     }
+
+    public Collection<Node> getInNeighbors() {
+        return new LinkedList<Node>(_inNeighbors.values());
+    }
     
    @Override
     public String toString() {
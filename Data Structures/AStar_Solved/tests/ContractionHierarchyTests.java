@@ -0,0 +1,99 @@
+package AStar_Solved.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.LinkedList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import AStar_Solved.main.ContractionHierarchy;
+import AStar_Solved.main.Graph;
+
+public class ContractionHierarchyTests extends TestsCore {
+
+    @Test
+    public void test_route() throws FileNotFoundException {
+        Graph gp = readGraph("/AStar_Solved/data/graph1.txt");
+        ContractionHierarchy ch = new ContractionHierarchy(gp);
+        assertEquals(12, ch.size());
+        assertNull(ch.route("A", "I"));
+        assertEquals(0.0, ch.getTraveledDistance(), 0.001);
+
+        assertEquals("[K, L, G, H, E, A, C]", ch.route("K", "C").toString());
+        assertEquals(732.590, ch.getTraveledDistance(), 0.001);
+
+        assertEquals("[A, B, D, G, K]", ch.route("A", "K").toString());
+        assertEquals(446.119, ch.getTraveledDistance(), 0.001);
+
+        assertEquals("[A]", ch.route("A", "A").toString());
+        assertEquals(0.0, ch.getTraveledDistance(), 0.001);
+
+        gp = readGraph("/AStar_Solved/data/graph3.txt");
+        ch = new ContractionHierarchy(gp);
+        assertEquals("[A, F, D, K, U, P, V, L, X, Z]", ch.route("A", "Z").toString());
+        assertEquals(615.698, ch.getTraveledDistance(), 0.001);
+    }
+
+    @Test
+    public void test_allPairs() throws FileNotFoundException {
+        Graph gp = readGraph("/AStar_Solved/data/graph3.txt");
+        ContractionHierarchy ch = new ContractionHierarchy(gp);
+        String labels = "ABCTEFGHSKJILNOyQRMZWY0UDVXP";
+        for (char from : labels.toCharArray()) {
+            for (char to : labels.toCharArray()) {
+                LinkedList<String> expected = gp.routeDijkstra("" + from, "" + to);
+                LinkedList<String> actual = ch.route("" + from, "" + to);
+                if (expected == null) {
+                    assertNull(actual);
+                } else {
+                    assertEquals(gp.getTraveledDistance(), ch.getTraveledDistance(), 0.001);
+                    assertEquals(gp.getTraveledDistance(), getLength(gp, actual), 0.001);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_city() {
+        Graph gp = GraphTests.buildCity(60, 1);
+        ContractionHierarchy ch = new ContractionHierarchy(gp);
+        Random random = new Random(4);
+        int dijkstraCount = 0;
+        int hierarchyCount = 0;
+        for (int i = 0; i < 50; i++) {
+            String from = random.nextInt(60) + "_" + random.nextInt(60);
+            String to = random.nextInt(60) + "_" + random.nextInt(60);
+            LinkedList<String> expected = gp.routeDijkstra(from, to);
+            dijkstraCount += gp.getQueueAddCount();
+            LinkedList<String> actual = ch.route(from, to);
+            hierarchyCount += ch.getQueueAddCount();
+            if (expected == null) {
+                assertNull(actual);
+                continue;
+            }
+            assertEquals(gp.getTraveledDistance(), ch.getTraveledDistance(), 0.001);
+            assertEquals(gp.getTraveledDistance(), getLength(gp, actual), 0.001);
+        }
+        assertTrue(hierarchyCount < dijkstraCount / 5);
+    }
+
+    /**
+     * Gets the length of the route, routing each of its edges through Dijkstra, such that
+     * a route including a missing edge comes out longer than the shortest one.
+     */
+    private double getLength(Graph gp, LinkedList<String> route) {
+        double length = 0;
+        String previous = route.getFirst();
+        for (String label : route) {
+            LinkedList<String> hop = gp.routeDijkstra(previous, label);
+            assertEquals(label.equals(previous) ? 1 : 2, hop.size());
+            length += gp.getTraveledDistance();
+            previous = label;
+        }
+        return length;
+    }
+}
@@ -2,10 +2,15 @@ package AStar_Solved.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import java.io.FileNotFoundException;
+import java.util.LinkedList;
+import java.util.Random;
 import org.junit.Test;
 
 import AStar_Solved.main.Graph;
+import AStar_Solved.main.Heuristic;
+import AStar_Solved.main.Point;
 
 public class GraphTests extends TestsCore {
 
@@ -51,7 +56,7 @@ public class GraphTests extends TestsCore {
     public void test_routeDijkstra() throws FileNotFoundException {
         Graph gp = readGraph("/AStar_Solved/data/graph1.txt");
         assertNull(gp.routeDijkstra("A", "I"));
-        assertEquals(11, gp.getQueueAddCount());
+        assertEquals(10, gp.getQueueAddCount());
         assertEquals(0.0, gp.getTraveledDistance(), 0.001);
 
         assertEquals("[K, L, G, H, E, A, C]", gp.routeDijkstra("K", "C").toString());
@@ -59,17 +64,17 @@ public class GraphTests extends TestsCore {
         assertEquals(732.590, gp.getTraveledDistance(), 0.001);
 
         assertEquals("[A, B, D, G, K]", gp.routeDijkstra("A", "K").toString());
-        assertEquals(11, gp.getQueueAddCount());
+        assertEquals(10, gp.getQueueAddCount());
         assertEquals(446.119, gp.getTraveledDistance(), 0.001);
 
         gp = readGraph("/AStar_Solved/data/graph2.txt");
         assertEquals("[A, C, E, G, K]", gp.routeDijkstra("A", "K").toString());
-        assertEquals(12, gp.getQueueAddCount());
+        assertEquals(10, gp.getQueueAddCount());
         assertEquals(452.563, gp.getTraveledDistance(), 0.001);
 
         gp = readGraph("/AStar_Solved/data/graph3.txt");
         assertEquals("[A, F, D, K, U, P, V, L, X, Z]", gp.routeDijkstra("A", "Z").toString());
-        assertEquals(28, gp.getQueueAddCount());
+        assertEquals(27, gp.getQueueAddCount());
         assertEquals(615.698, gp.getTraveledDistance(), 0.001);
     }
 
@@ -77,7 +82,7 @@ public class GraphTests extends TestsCore {
     public void test_routeAStar() throws FileNotFoundException {
         Graph gp = readGraph("/AStar_Solved/data/graph1.txt");
         assertNull(gp.routeDijkstra("A", "I"));
-        assertEquals(11, gp.getQueueAddCount()); // FindFirst < Dijkstra = A*
+        assertEquals(10, gp.getQueueAddCount()); // FindFirst = Dijkstra = A*
         assertEquals(0.0, gp.getTraveledDistance(), 0.001); // FindFirst = Dijkstra = A*
 
         assertEquals("[K, L, G, H, E, A, C]", gp.routeAStar("K", "C").toString());
@@ -85,17 +90,143 @@ public class GraphTests extends TestsCore {
         assertEquals(732.590, gp.getTraveledDistance(), 0.001); // FindFirst = Dijkstra = A*
 
         assertEquals("[A, B, D, G, K]", gp.routeAStar("A", "K").toString());
-        assertEquals(9, gp.getQueueAddCount()); // Dijkstra < FindFirst < A*
+        assertEquals(9, gp.getQueueAddCount()); // A* < FindFirst = Dijkstra
         assertEquals(446.119, gp.getTraveledDistance(), 0.001); // FindFirst = Dijkstra = A*
 
         gp = readGraph("/AStar_Solved/data/graph2.txt");
         assertEquals("[A, C, E, G, K]", gp.routeAStar("A", "K").toString());
-        assertEquals(10, gp.getQueueAddCount()); // Dijkstra < FindFirst = A*
+        assertEquals(10, gp.getQueueAddCount()); // FindFirst = Dijkstra = A*
         assertEquals(452.563, gp.getTraveledDistance(), 0.001); // FindFirst < Dijkstra = A*
 
         gp = readGraph("/AStar_Solved/data/graph3.txt");
         assertEquals("[A, F, D, K, U, P, V, L, X, Z]", gp.routeAStar("A", "Z").toString());
-        assertEquals(20, gp.getQueueAddCount()); // Dijkstra < FindFirst < A*
+        assertEquals(20, gp.getQueueAddCount()); // A* < FindFirst = Dijkstra
         assertEquals(615.698, gp.getTraveledDistance(), 0.001); // FindFirst < Dijkstra = A*
     }
+
+    /**
+     * Builds a road-like graph: a size x size grid of intersections, jittered around
+     * their grid positions, with two-way streets between neighbors, some of them missing.
+     */
+    public static Graph buildCity(int size, long seed) {
+        Random random = new Random(seed);
+        Graph gp = new Graph();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                gp.addNode(new Point(r + "_" + c, 100 * c + random.nextInt(60), 100 * r + random.nextInt(60)));
+            }
+        }
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (c + 1 < size && random.nextInt(5) > 0) {
+                    gp.addEdge(r + "_" + c, r + "_" + (c + 1));
+                    gp.addEdge(r + "_" + (c + 1), r + "_" + c);
+                }
+                if (r + 1 < size && random.nextInt(5) > 0) {
+                    gp.addEdge(r + "_" + c, (r + 1) + "_" + c);
+                    gp.addEdge((r + 1) + "_" + c, r + "_" + c);
+                }
+            }
+        }
+        return gp;
+    }
+
+    @Test
+    public void test_routeAStarOptimal() {
+        Graph gp = buildCity(30, 1);
+        Random random = new Random(2);
+        int dijkstraCount = 0;
+        int aStarCount = 0;
+        for (int i = 0; i < 50; i++) {
+            String from = random.nextInt(30) + "_" + random.nextInt(30);
+            String to = random.nextInt(30) + "_" + random.nextInt(30);
+            LinkedList<String> dijkstraRoute = gp.routeDijkstra(from, to);
+            double dijkstraDistance = gp.getTraveledDistance();
+            dijkstraCount += gp.getQueueAddCount();
+            LinkedList<String> aStarRoute = gp.routeAStar(from, to);
+            aStarCount += gp.getQueueAddCount();
+            if (dijkstraRoute == null) {
+                assertNull(aStarRoute);
+                continue;
+            }
+            assertEquals(from, aStarRoute.getFirst());
+            assertEquals(to, aStarRoute.getLast());
+            assertEquals(dijkstraDistance, gp.getTraveledDistance(), 0.001);
+        }
+        assertTrue(aStarCount < dijkstraCount / 2);
+    }
+
+    @Test
+    public void test_routeAStarReopen() {
+        Graph gp = buildCity(30, 1);
+        // admissible but inconsistent: the straight-line distance on half of the nodes, 0 on the others
+        Heuristic inconsistent = (node, target) ->
+            (node.getLabel().hashCode() % 2 == 0) ? node.getPoint().distance(target.getPoint()) : 0;
+        Random random = new Random(4);
+        int reopenCount = 0;
+        for (int i = 0; i < 50; i++) {
+            String from = random.nextInt(30) + "_" + random.nextInt(30);
+            String to = random.nextInt(30) + "_" + random.nextInt(30);
+            LinkedList<String> dijkstraRoute = gp.routeDijkstra(from, to);
+            double dijkstraDistance = gp.getTraveledDistance();
+            gp.routeAStar(from, to);
+            assertEquals(0, gp.getReopenCount()); // the straight-line distance is consistent
+            LinkedList<String> aStarRoute = gp.routeAStar(from, to, inconsistent);
+            reopenCount += gp.getReopenCount();
+            if (dijkstraRoute == null) {
+                assertNull(aStarRoute);
+                continue;
+            }
+            assertEquals(dijkstraDistance, gp.getTraveledDistance(), 0.001);
+        }
+        assertTrue(reopenCount > 0);
+    }
+
+    @Test
+    public void test_routeBidirectional() throws FileNotFoundException {
+        Graph gp = readGraph("/AStar_Solved/data/graph1.txt");
+        assertNull(gp.routeBidirectional("A", "I"));
+        assertEquals(4, gp.getQueueAddCount()); // Bidirectional < Dijkstra: no edge leads to I, the backward search stops at once
+        assertEquals(0.0, gp.getTraveledDistance(), 0.001);
+
+        assertEquals("[K, L, G, H, E, A, C]", gp.routeBidirectional("K", "C").toString());
+        assertEquals(9, gp.getQueueAddCount());
+        assertEquals(732.590, gp.getTraveledDistance(), 0.001);
+
+        assertEquals("[A, B, D, G, K]", gp.routeBidirectional("A", "K").toString());
+        assertEquals(16, gp.getQueueAddCount()); // Dijkstra < Bidirectional: both searches cover most of the graph
+        assertEquals(446.119, gp.getTraveledDistance(), 0.001);
+        assertEquals("[A]", gp.routeBidirectional("A", "A").toString());
+        assertEquals(0.0, gp.getTraveledDistance(), 0.001);
+
+        gp = readGraph("/AStar_Solved/data/graph3.txt");
+        assertEquals("[A, F, D, K, U, P, V, L, X, Z]", gp.routeBidirectional("A", "Z").toString());
+        assertEquals(615.698, gp.getTraveledDistance(), 0.001);
+
+        // removing a node unlinks it from both the forward and the backward searches
+        gp.removeNode("U");
+        assertEquals(gp.routeDijkstra("A", "Z").toString(), gp.routeBidirectional("A", "Z").toString());
+
+        gp = buildCity(30, 1);
+        Random random = new Random(3);
+        int dijkstraCount = 0;
+        int bidirectionalCount = 0;
+        for (int i = 0; i < 50; i++) {
+            String from = random.nextInt(30) + "_" + random.nextInt(30);
+            String to = random.nextInt(30) + "_" + random.nextInt(30);
+            LinkedList<String> dijkstraRoute = gp.routeDijkstra(from, to);
+            double dijkstraDistance = gp.getTraveledDistance();
+            dijkstraCount += gp.getQueueAddCount();
+            LinkedList<String> bidirectionalRoute = gp.routeBidirectional(from, to);
+            bidirectionalCount += gp.getQueueAddCount();
+            if (dijkstraRoute == null) {
+                assertNull(bidirectionalRoute);
+                continue;
+            }
+            assertEquals(from, bidirectionalRoute.getFirst());
+            assertEquals(to, bidirectionalRoute.getLast());
+            assertEquals(dijkstraDistance, gp.getTraveledDistance(), 0.001);
+        }
+        assertTrue(bidirectionalCount < dijkstraCount);
+    }
 }
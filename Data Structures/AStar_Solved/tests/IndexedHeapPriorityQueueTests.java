@@ -0,0 +1,77 @@
+package AStar_Solved.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import AStar_Solved.main.IndexedHeapPriorityQueue;
+import AStar_Solved.main.Point;
+
+public class IndexedHeapPriorityQueueTests {
+
+    /**
+     * Mutable key wrapper, letting the test lower the key of a queued element.
+     */
+    private static class Key implements Comparable<Key> {
+        private String _label;
+        private int _value;
+
+        private Key(String label, int value) {
+            _label = label;
+            _value = value;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return Integer.compare(_value, other._value);
+        }
+    }
+
+    @Test
+    public void test_heap() {
+        IndexedHeapPriorityQueue<Point> pq = new IndexedHeapPriorityQueue<Point>(Point.class);
+        Point origin = new Point("Origin", 0, 0);
+        Point a = new Point("A", 1, 1);
+        pq.add(origin);
+        pq.add(a);
+        pq.add(new Point("B", -1, -1));
+        pq.add(new Point("C", -1, 0));
+        assertTrue(pq.contains(a));
+        assertEquals("Origin", pq.remove().getLabel());
+        assertFalse(pq.contains(origin));
+        assertEquals("C", pq.remove().getLabel());
+        assertEquals("A", pq.remove().getLabel());
+        assertFalse(pq.contains(a));
+        pq.add(new Point("D", 1, 0));
+        assertEquals("D", pq.remove().getLabel());
+        assertEquals(1, pq.size());
+    }
+
+    @Test
+    public void test_decreaseKey() {
+        IndexedHeapPriorityQueue<Key> pq = new IndexedHeapPriorityQueue<Key>(Key.class);
+        Key[] keys = new Key[10];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Key("K" + i, 10 * (i + 1));
+            pq.add(keys[i]);
+        }
+        keys[7]._value = 5;
+        pq.decreaseKey(keys[7]);
+        keys[9]._value = 15;
+        pq.decreaseKey(keys[9]);
+        assertEquals("K7", pq.remove()._label);
+        assertEquals("K0", pq.remove()._label);
+        assertEquals("K9", pq.remove()._label);
+        assertEquals("K1", pq.remove()._label);
+        assertEquals(6, pq.size());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void test_addTwice() {
+        IndexedHeapPriorityQueue<Point> pq = new IndexedHeapPriorityQueue<Point>(Point.class);
+        Point a = new Point("A", 1, 1);
+        pq.add(a);
+        pq.add(a);
+    }
+}
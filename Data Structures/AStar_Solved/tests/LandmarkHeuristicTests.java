@@ -0,0 +1,69 @@
+package AStar_Solved.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.LinkedList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import AStar_Solved.main.Graph;
+import AStar_Solved.main.LandmarkHeuristic;
+
+public class LandmarkHeuristicTests extends TestsCore {
+
+    @Test
+    public void test_allPairs() throws FileNotFoundException {
+        Graph gp = readGraph("/AStar_Solved/data/graph3.txt");
+        String labels = "ABCTEFGHSKJILNOyQRMZWY0UDVXP";
+        for (LandmarkHeuristic.Strategy strategy : LandmarkHeuristic.Strategy.values()) {
+            LandmarkHeuristic alt = new LandmarkHeuristic(gp, 4, strategy);
+            assertEquals(4, alt.getLandmarkCount());
+            for (char from : labels.toCharArray()) {
+                for (char to : labels.toCharArray()) {
+                    LinkedList<String> expected = gp.routeDijkstra("" + from, "" + to);
+                    double distance = gp.getTraveledDistance();
+                    LinkedList<String> actual = gp.routeAStar("" + from, "" + to, alt);
+                    if (expected == null) {
+                        assertNull(actual);
+                    } else {
+                        assertEquals(distance, gp.getTraveledDistance(), 0.001);
+                    }
+                }
+            }
+        }
+        assertEquals("[A, F, D, K, U, P, V, L, X, Z]",
+            gp.routeAStar("A", "Z", new LandmarkHeuristic(gp, 4, LandmarkHeuristic.Strategy.AVOID)).toString());
+        assertEquals(615.698, gp.getTraveledDistance(), 0.001);
+    }
+
+    @Test
+    public void test_city() {
+        // routes wind around the streets missing from the city
+        Graph gp = GraphTests.buildCity(40, 5);
+        for (LandmarkHeuristic.Strategy strategy : LandmarkHeuristic.Strategy.values()) {
+            LandmarkHeuristic alt = new LandmarkHeuristic(gp, 8, strategy);
+            int euclideanCount = 0;
+            int altCount = 0;
+            Random random = new Random(7);
+            for (int i = 0; i < 50; i++) {
+                String from = random.nextInt(40) + "_" + random.nextInt(40);
+                String to = random.nextInt(40) + "_" + random.nextInt(40);
+                LinkedList<String> expected = gp.routeAStar(from, to);
+                double distance = gp.getTraveledDistance();
+                euclideanCount += gp.getQueueAddCount();
+                LinkedList<String> actual = gp.routeAStar(from, to, alt);
+                altCount += gp.getQueueAddCount();
+                if (expected == null) {
+                    assertNull(actual);
+                    continue;
+                }
+                assertEquals(distance, gp.getTraveledDistance(), 0.001);
+            }
+            assertTrue(altCount < euclideanCount);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package Graphs.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Function;
+
+import Graphs.main.Graph;
+import Graphs.main.GraphGenerators;
+
+/**
+ * Benchmark harness measuring how the Graph algorithms scale with the size and the shape
+ * of the Graph. For each size, each generated shape (random, grid, scale-free, chain and
+ * layered DAG) and each algorithm, the harness runs the algorithm for a warm-up period,
+ * then for a measurement period, and reports:<br>
+ * - ops/s: the number of calls completed per second;<br>
+ * - us/op: the average time of a call, in microseconds;<br>
+ * - B/op and MB/s: the bytes allocated by the calling thread, per call and per second.<br>
+ * The allocations are read from the JVM thread counters, when the JVM supports them. They
+ * do not account for the work the algorithms hand to other threads.
+ * <br>The Graph caches its snapshot and its partitions between calls, so the plain figures are
+ * the ones of repeated queries against an unchanged Graph. The "/rebuild" runs add and remove
+ * a Node before each call, which discards the snapshot and the partitions, so they measure the
+ * rebuild along with the query, as after any modification of the Graph. The time to generate
+ * each Graph is reported on its own line.
+ * <br>Usage:<pre>
+ * java Graphs.benchmarks.GraphBenchmarks [sizes] [warm-up ms] [measure ms]
+ * java Graphs.benchmarks.GraphBenchmarks 1000,10000,100000,1000000 500 2000
+ * </pre>
+ * Run the largest sizes with a large enough heap (e.g. -Xmx4g).
+ */
+public class GraphBenchmarks {
+
+    private static final String _DEFAULT_SIZES = "1000,10000,100000";
+    private static final long _DEFAULT_WARMUP_MS = 300;
+    private static final long _DEFAULT_MEASURE_MS = 1000;
+    private static final long _SEED = 20200;
+
+    // sink for the results, such that the JIT cannot drop the calls producing them
+    private static volatile int _sink;
+
+    /**
+     * Class definition for an algorithm being measured: its name and the call running it.
+     */
+    private static class Benchmark {
+        private String _name;
+        private Function<Graph<Integer>, Object> _call;
+
+        private Benchmark(String name, Function<Graph<Integer>, Object> call) {
+            _name = name;
+            _call = call;
+        }
+    }
+
+    private static ArrayList<Benchmark> getBenchmarks() {
+        ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.add(new Benchmark("isConnected", g -> g.isConnected()));
+        benchmarks.add(new Benchmark("isDAGraph", g -> g.isDAGraph()));
+        benchmarks.add(new Benchmark("topoSort", g -> g.topoSort()));
+        benchmarks.add(new Benchmark("countPartitions", g -> g.countPartitions()));
+        benchmarks.add(new Benchmark("dijkstra", g -> g.dijkstra(0)));
+        benchmarks.add(new Benchmark("getEulerianCircuit", g -> g.getEulerianCircuit()));
+        benchmarks.add(new Benchmark("getInDegrees", g -> g.getInDegrees()));
+        benchmarks.add(new Benchmark("snapshot/rebuild", g -> { touch(g); return g.snapshot(); }));
+        benchmarks.add(new Benchmark("countPartitions/rebuild", g -> { touch(g); return g.countPartitions(); }));
+        benchmarks.add(new Benchmark("isConnected/rebuild", g -> { touch(g); return g.isConnected(); }));
+        benchmarks.add(new Benchmark("dijkstra/rebuild", g -> { touch(g); return g.dijkstra(0); }));
+        return benchmarks;
+    }
+
+    /**
+     * Adds a Node to the Graph and removes it again, which leaves the Graph unchanged but
+     * discards its cached snapshot and partitions, such that the next query rebuilds them.
+     */
+    private static void touch(Graph<Integer> graph) {
+        graph.addNode(-1);
+        graph.removeNode(-1);
+    }
+
+    /**
+     * Generates the Graph of the given shape, having about <i>size</i> Nodes.
+     */
+    private static Graph<Integer> generate(String shape, int size) {
+        int side = Math.max(1, (int)Math.sqrt(size));
+        switch (shape) {
+        case "random":
+            return GraphGenerators.erdosRenyi(size, 4, _SEED);
+        case "grid":
+            return GraphGenerators.grid(side, size / side);
+        case "scale-free":
+            return GraphGenerators.preferentialAttachment(size, 2, _SEED);
+        case "chain":
+            return GraphGenerators.chain(size);
+        case "dag":
+            return GraphGenerators.dagLayers(size / side, side, 3, _SEED);
+        default:
+            throw new RuntimeException("Unknown shape!");
+        }
+    }
+
+    /**
+     * Gets the bytes allocated so far by the current thread, or -1 if the JVM does not
+     * count them.
+     */
+    private static long getAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean)bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Calls the benchmark repeatedly, for at least the given duration.
+     * @return the number of calls, the elapsed nanoseconds and the allocated bytes.
+     */
+    private static long[] run(Benchmark benchmark, Graph<Integer> graph, long millis) {
+        long deadline = millis * 1000000L;
+        long ops = 0;
+        long bytes = getAllocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            _sink += Objects.hashCode(benchmark._call.apply(graph));
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < deadline);
+        bytes = (bytes < 0) ? -1 : getAllocatedBytes() - bytes;
+        return new long[] { ops, elapsed, bytes };
+    }
+
+    public static void main(String[] args) {
+        String sizes = (args.length > 0) ? args[0] : _DEFAULT_SIZES;
+        long warmup = (args.length > 1) ? Long.parseLong(args[1]) : _DEFAULT_WARMUP_MS;
+        long measure = (args.length > 2) ? Long.parseLong(args[2]) : _DEFAULT_MEASURE_MS;
+        String[] shapes = { "random", "grid", "scale-free", "chain", "dag" };
+
+        System.out.printf("%-8s %-11s %-24s %14s %14s %14s %12s%n",
+            "nodes", "shape", "benchmark", "ops/s", "us/op", "B/op", "MB/s");
+        for (String token : sizes.split(",")) {
+            int size = Integer.parseInt(token.trim());
+            for (String shape : shapes) {
+                long start = System.nanoTime();
+                Graph<Integer> graph = generate(shape, size);
+                long generated = System.nanoTime() - start;
+                System.out.printf("%-8d %-11s %-24s %14s %14.1f%n",
+                    graph.size(), shape, "(generate)", "", generated / 1000.0);
+                for (Benchmark benchmark : getBenchmarks()) {
+                    run(benchmark, graph, warmup);
+                    long[] result = run(benchmark, graph, measure);
+                    double seconds = result[1] / 1e9;
+                    System.out.printf("%-8d %-11s %-24s %14.1f %14.1f %14s %12s%n",
+                        graph.size(), shape, benchmark._name,
+                        result[0] / seconds,
+                        result[1] / 1000.0 / result[0],
+                        (result[2] < 0) ? "n/a" : String.valueOf(result[2] / result[0]),
+                        (result[2] < 0) ? "n/a" : String.format("%.1f", result[2] / seconds / 1e6));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package Graphs.main;
+
+import java.util.Arrays;
+
+/**
+ * Class definition for a square boolean matrix packing its entries as bits, 64 of them
+ * in each long. Each row takes (size+63)/64 consecutive longs of a single array, such
+ * that the adjacency matrix of a 100k nodes graph takes 1.25GB instead of the 40GB of
+ * an int[][] matrix.
+ * <br>Boolean operations run on whole words: the OR of two rows handles 64 columns per
+ * instruction. This is what makes the products computing reachability in k steps fast.
+ * @see GraphSnapshot#getBitMatrix()
+ */
+public class BitMatrix {
+    // number of rows, also the number of columns
+    private int _size;
+    // number of longs in each row
+    private int _words;
+    // bits of the matrix, row after row: entry (i, j) is bit j % 64 of _bits[i * _words + j / 64]
+    private long[] _bits;
+
+    /**
+     * Constructs a square matrix of the given size, with all entries false.
+     * @param size - the number of rows and columns.
+     * @throws RuntimeException if the matrix would need more than Integer.MAX_VALUE longs.
+     */
+    public BitMatrix(int size) {
+        _size = size;
+        _words = (size + 63) / 64;
+        if ((long)size * _words > Integer.MAX_VALUE) {
+            throw new RuntimeException("Matrix too large!");
+        }
+        _bits = new long[size * _words];
+    }
+
+    /**
+     * Constructs the identity matrix of the given size: true on the diagonal only.
+     * @param size - the number of rows and columns.
+     * @return the identity matrix.
+     */
+    public static BitMatrix identity(int size) {
+        BitMatrix matrix = new BitMatrix(size);
+        for (int i = 0; i < size; i++) {
+            matrix.set(i, i);
+        }
+        return matrix;
+    }
+
+    /**
+     * Gets the number of rows (and columns) of this matrix.
+     * @return the size of the matrix.
+     */
+    public int size() {
+        return _size;
+    }
+
+    public boolean get(int row, int column) {
+        return (_bits[row * _words + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    public void set(int row, int column) {
+        _bits[row * _words + (column >>> 6)] |= 1L << column;
+    }
+
+    public void clear(int row, int column) {
+        _bits[row * _words + (column >>> 6)] &= ~(1L << column);
+    }
+
+    /**
+     * Counts the true entries of a row.
+     * @param row - index of the row.
+     * @return number of true entries in the row.
+     */
+    public int getRowCount(int row) {
+        int count = 0;
+        for (int w = row * _words; w < (row + 1) * _words; w++) {
+            count += Long.bitCount(_bits[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the true entries of the whole matrix.
+     * @return number of true entries.
+     */
+    public long getCount() {
+        long count = 0;
+        for (long word : _bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the columns of the true entries of a row, in increasing order.
+     * @param row - index of the row.
+     * @return the columns of the row's true entries.
+     */
+    public int[] getRow(int row) {
+        int[] columns = new int[getRowCount(row)];
+        int k = 0;
+        for (int w = 0; w < _words; w++) {
+            long word = _bits[row * _words + w];
+            while (word != 0) {
+                columns[k++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Computes the boolean product of this matrix by another one of the same size: entry
+     * (i, j) of the product is true if some k has (i, k) true in this matrix and (k, j)
+     * true in the other. Row i of the product is the OR of the rows k of the other matrix,
+     * for each true entry (i, k) of this matrix, computed one word at a time.
+     * @param other - the matrix on the right side of the product.
+     * @return the product matrix.
+     */
+    public BitMatrix multiply(BitMatrix other) {
+        if (other._size != _size) {
+            throw new RuntimeException("Matrix sizes do not match!");
+        }
+        BitMatrix product = new BitMatrix(_size);
+        for (int i = 0; i < _size; i++) {
+            int row = i * _words;
+            for (int w = 0; w < _words; w++) {
+                long word = _bits[row + w];
+                while (word != 0) {
+                    int k = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    int otherRow = k * _words;
+                    for (int v = 0; v < _words; v++) {
+                        product._bits[row + v] |= other._bits[otherRow + v];
+                    }
+                }
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Computes the boolean OR of this matrix and another one of the same size.
+     * @param other - the other matrix.
+     * @return the matrix true wherever either matrix is true.
+     */
+    public BitMatrix or(BitMatrix other) {
+        if (other._size != _size) {
+            throw new RuntimeException("Matrix sizes do not match!");
+        }
+        BitMatrix result = new BitMatrix(_size);
+        for (int w = 0; w < _bits.length; w++) {
+            result._bits[w] = _bits[w] | other._bits[w];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the k-th boolean power of this matrix, by repeated squaring. For an
+     * adjacency matrix, entry (i, j) of the power is true if a walk of exactly k
+     * edges leads from node i to node j.
+     * @param k - the exponent, not negative.
+     * @return this matrix to the power of k.
+     */
+    public BitMatrix power(int k) {
+        if (k < 0) {
+            throw new RuntimeException("Negative exponent!");
+        }
+        BitMatrix result = identity(_size);
+        BitMatrix square = this;
+        while (k > 0) {
+            if ((k & 1) != 0) {
+                result = result.multiply(square);
+            }
+            k >>>= 1;
+            if (k > 0) {
+                square = square.multiply(square);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the reachability in at most k steps. For an adjacency matrix A, this is
+     * the k-th power of (I | A): entry (i, j) is true if node j can be reached from
+     * node i by following at most k edges. Every node reaches itself in 0 steps.
+     * @param k - the largest number of steps, not negative.
+     * @return the matrix of the nodes reachable within k steps from each node.
+     */
+    public BitMatrix reachableWithin(int k) {
+        return identity(_size).or(this).power(k);
+    }
+
+    /**
+     * Advances a set of nodes by one step: the result holds the columns j for which
+     * some row i in the frontier has (i, j) true. The sets are bitsets of size() bits,
+     * in the same layout as the rows of this matrix.
+     * @param frontier - bitset of the rows to start from.
+     * @return bitset of the columns reached in one step.
+     */
+    public long[] step(long[] frontier) {
+        long[] next = new long[_words];
+        for (int w = 0; w < _words; w++) {
+            long word = frontier[w];
+            while (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                for (int v = 0; v < _words; v++) {
+                    next[v] |= _bits[i * _words + v];
+                }
+            }
+        }
+        return next;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof BitMatrix)) {
+            return false;
+        }
+        BitMatrix matrix = (BitMatrix)other;
+        return matrix._size == _size && Arrays.equals(matrix._bits, _bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(_bits);
+    }
+}
@@ -0,0 +1,128 @@
+package Graphs.main;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * Class definition for the histogram of the degrees of the Nodes in a Graph:
+ * for each degree value, the number of Nodes having that degree.
+ * <br>The histogram is owned and kept up to date by its Graph, each added or removed
+ * Edge moving the two Nodes at its ends from one bucket to the next in O(1). Reading it
+ * never recomputes anything, such that it can be polled as often as needed.
+ * <br>The histogram is a live view of the Graph, not a copy: it changes as the Graph
+ * changes. Use toMap() to take a copy of its current content.
+ * @see Graph#getInDegreeHistogram()
+ * @see Graph#getOutDegreeHistogram()
+ */
+public class DegreeHistogram {
+    // number of nodes having each degree, indexed by degree
+    private int[] _counts;
+    // highest degree having a non-zero count, or -1 if the histogram is empty
+    private int _maxDegree;
+    // total number of nodes counted
+    private int _size;
+
+    /**
+     * Constructs an empty histogram.
+     */
+    DegreeHistogram() {
+        _counts = new int[16];
+        _maxDegree = -1;
+        _size = 0;
+    }
+
+    /**
+     * Gets the number of Nodes counted in the histogram.
+     * @return number of Nodes.
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Gets the highest degree of any Node.
+     * @return the highest degree, or -1 if the histogram is empty.
+     */
+    public int getMaxDegree() {
+        return _maxDegree;
+    }
+
+    /**
+     * Gets the number of Nodes having the given degree.
+     * @param degree - the degree value.
+     * @return number of Nodes with that degree.
+     */
+    public int getCount(int degree) {
+        return (degree >= 0 && degree < _counts.length) ? _counts[degree] : 0;
+    }
+
+    /**
+     * Generates a map associating each degree value having at least one Node (key)
+     * with the number of Nodes having that degree (value).
+     * @return a copy of the current content of the histogram.
+     */
+    public TreeMap<Integer, Integer> toMap() {
+        TreeMap<Integer, Integer> map = new TreeMap<Integer, Integer>();
+        for (int degree = 0; degree <= _maxDegree; degree++) {
+            if (_counts[degree] > 0) {
+                map.put(degree, _counts[degree]);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    /**
+     * Counts a new Node of the given degree.
+     * @param degree - the degree of the Node.
+     */
+    void add(int degree) {
+        if (degree >= _counts.length) {
+            _counts = Arrays.copyOf(_counts, Math.max(degree + 1, 2 * _counts.length));
+        }
+        _counts[degree]++;
+        _maxDegree = Math.max(_maxDegree, degree);
+        _size++;
+    }
+
+    /**
+     * Stops counting a Node of the given degree.
+     * @param degree - the degree of the Node.
+     */
+    void remove(int degree) {
+        _counts[degree]--;
+        _size--;
+        while (_maxDegree >= 0 && _counts[_maxDegree] == 0) {
+            _maxDegree--;
+        }
+    }
+
+    /**
+     * Moves a Node from one degree to another, as its Edges change. The highest degree
+     * is only searched for when the Node leaves it and no other Node has it, which for
+     * a single Edge takes a single step down.
+     * @param from - the previous degree of the Node.
+     * @param to - the new degree of the Node.
+     */
+    void move(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        if (to >= _counts.length) {
+            _counts = Arrays.copyOf(_counts, Math.max(to + 1, 2 * _counts.length));
+        }
+        _counts[from]--;
+        _counts[to]++;
+        if (to > _maxDegree) {
+            _maxDegree = to;
+        } else if (from == _maxDegree && _counts[from] == 0) {
+            while (_counts[_maxDegree] == 0) {
+                _maxDegree--;
+            }
+        }
+    }
+}
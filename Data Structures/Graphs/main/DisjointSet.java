@@ -0,0 +1,91 @@
+package Graphs.main;
+
+import java.util.Arrays;
+
+/**
+ * Class definition for a disjoint-set (union-find) structure over int ids.
+ * Each id belongs to exactly one set, identified by the id at its root. Sets are merged
+ * by rank and paths are compressed on lookups, such that any sequence of operations runs
+ * in nearly constant amortized time per operation (O(&alpha;(n))).
+ * @see Graph#countPartitions()
+ */
+class DisjointSet {
+    // parent of each id, roots are their own parent. -1 marks ids not in any set.
+    private int[] _parent;
+    // upper bound of the height of the tree rooted in each id
+    private byte[] _rank;
+    // number of disjoint sets
+    private int _count;
+
+    /**
+     * Constructs an empty disjoint-set structure.
+     */
+    DisjointSet() {
+        _parent = new int[16];
+        _rank = new byte[16];
+        Arrays.fill(_parent, -1);
+        _count = 0;
+    }
+
+    /**
+     * Gets the number of disjoint sets.
+     * @return number of sets.
+     */
+    int getCount() {
+        return _count;
+    }
+
+    /**
+     * Adds the id in a new set of its own. The id must not be in any set already.
+     * @param id - the id to be added.
+     */
+    void makeSet(int id) {
+        if (id >= _parent.length) {
+            int length = Math.max(id + 1, 2 * _parent.length);
+            int oldLength = _parent.length;
+            _parent = Arrays.copyOf(_parent, length);
+            _rank = Arrays.copyOf(_rank, length);
+            Arrays.fill(_parent, oldLength, length, -1);
+        }
+        _parent[id] = id;
+        _rank[id] = 0;
+        _count++;
+    }
+
+    /**
+     * Finds the root of the set containing the id, halving the path to the root on the way.
+     * @param id - an id already added to a set.
+     * @return the root of the set containing the id.
+     */
+    int find(int id) {
+        while (_parent[id] != id) {
+            _parent[id] = _parent[_parent[id]];
+            id = _parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Merges the sets containing the two ids, attaching the shallower tree under the other.
+     * @param id1 - an id already added to a set.
+     * @param id2 - an id already added to a set.
+     * @return true if the two sets were merged, false if the ids were already in the same set.
+     */
+    boolean union(int id1, int id2) {
+        int root1 = find(id1);
+        int root2 = find(id2);
+        if (root1 == root2) {
+            return false;
+        }
+        if (_rank[root1] < _rank[root2]) {
+            _parent[root1] = root2;
+        } else if (_rank[root1] > _rank[root2]) {
+            _parent[root2] = root1;
+        } else {
+            _parent[root2] = root1;
+            _rank[root1]++;
+        }
+        _count--;
+        return true;
+    }
+}
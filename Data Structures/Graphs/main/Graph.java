@@ -1,12 +1,15 @@
 package Graphs.main;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Queue;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
@@ -29,6 +32,62 @@ public class Graph<T extends Comparable<T>> {
      * <pre>key="abc"<br>value=n</pre>
      */
     private Map<String, Node<T>> _nodes;
+
+    /**
+     * Compact snapshot of the Graph, built on demand by snapshot() and
+     * discarded whenever the Graph is modified.
+     * @see Graph#snapshot()
+     */
+    private volatile GraphSnapshot<T> _snapshot;
+
+    /**
+     * True if hasPath() queries are to be answered through a reachability index.
+     * @see Graph#setReachabilityIndexed(boolean)
+     */
+    private boolean _reachabilityIndexed;
+
+    /**
+     * Disjoint-set tracking the partitions of the Graph, over the Nodes' int ids.
+     * It is kept up to date as Nodes and Edges are added, and rebuilt on demand after
+     * Edges or Nodes are removed, since removal may split a partition.
+     * @see Graph#countPartitions()
+     */
+    private DisjointSet _partitions;
+
+    /**
+     * True if _partitions needs to be rebuilt before being queried.
+     */
+    private boolean _partitionsDirty;
+
+    /**
+     * Dictionary interning the label of each Node ever added to the Graph into an int id.
+     * A Node added again after being removed gets back the same id.
+     * @see LabelDictionary
+     */
+    private LabelDictionary _labels;
+
+    /**
+     * The Node having each int id, or null for ids of removed Nodes. Together with
+     * _labels, this is the lookup path from a key to its Node.
+     * @see Graph#getNode(Object)
+     */
+    private ArrayList<Node<T>> _nodesById;
+
+    /**
+     * Histograms of the in-degrees and out-degrees of the Nodes, kept up to date
+     * as Nodes and Edges are added and removed.
+     * @see Graph#getInDegreeHistogram()
+     * @see Graph#getOutDegreeHistogram()
+     */
+    private DegreeHistogram _inHistogram;
+    private DegreeHistogram _outHistogram;
+
+    /**
+     * Ids of the Nodes whose data or outgoing Edges changed since the last call to
+     * takeChanges(), or null if the changes are not tracked.
+     * @see VersionedGraph
+     */
+    private BitSet _changes;
     
     /**
      * Constructs a new Graph as an empty container fit for Nodes of the type T.
@@ -37,6 +96,15 @@ public class Graph<T extends Comparable<T>> {
      */
     public Graph() {
         _nodes = new TreeMap<String, Node<T>>();
+        _snapshot = null;
+        _reachabilityIndexed = false;
+        _partitions = new DisjointSet();
+        _partitionsDirty = false;
+        _labels = new LabelDictionary();
+        _nodesById = new ArrayList<Node<T>>();
+        _inHistogram = new DegreeHistogram();
+        _outHistogram = new DegreeHistogram();
+        _changes = null;
     }
     
     /**
@@ -47,7 +115,110 @@ public class Graph<T extends Comparable<T>> {
     public int size() {
         return _nodes.size();
     }
+
+    /**
+     * Gets the Node identified by a given key, through its interned label id.
+     * @param key - node data or label.
+     * @return the Node, or null if there is no such Node in the Graph.
+     */
+    private Node<T> getNode(Object key) {
+        int id = _labels.getId(Node.getLabel(key));
+        return (id < 0) ? null : _nodesById.get(id);
+    }
+
+    /**
+     * Gets the Node having the given int id.
+     * @param id - the int id of the Node.
+     * @return the Node, or null for the id of a removed Node or for an id not assigned yet.
+     */
+    Node<T> getNodeById(int id) {
+        return (id < _nodesById.size()) ? _nodesById.get(id) : null;
+    }
+
+    /**
+     * Starts tracking the Nodes whose data or outgoing Edges change, all the current
+     * Nodes counting as changed.
+     * @see Graph#takeChanges()
+     */
+    void trackChanges() {
+        _changes = new BitSet();
+        for (Node<T> node : _nodes.values()) {
+            _changes.set(node.getId());
+        }
+    }
+
+    /**
+     * Gets the ids of the Nodes whose data or outgoing Edges changed since the previous
+     * call, and tracks the next changes from scratch.
+     * @return the ids of the changed Nodes, including the ones of removed Nodes.
+     * @see Graph#trackChanges()
+     */
+    BitSet takeChanges() {
+        BitSet changes = _changes;
+        _changes = new BitSet();
+        return changes;
+    }
+
+    /**
+     * Records the change of the data or of the outgoing Edges of the Node, if the
+     * changes are tracked.
+     */
+    private void changed(Node<T> node) {
+        if (_changes != null) {
+            _changes.set(node.getId());
+        }
+    }
     
+    /**
+     * Gets an immutable snapshot of this Graph, with Nodes identified by int ids
+     * and edges stored in Compressed Sparse Row (CSR) arrays. The snapshot is built
+     * once and reused until the Graph is modified, such that algorithms running
+     * repeatedly on an unchanged Graph do not pay for building it again.
+     * <br>Queries running on the snapshot keep their state in a per-query context
+     * rather than in the Nodes, so several threads can query the same unchanged Graph
+     * at once. Modifying the Graph while it is being queried is not supported.
+     * @return the snapshot of the current content and structure of this Graph.
+     * @see GraphSnapshot
+     */
+    public GraphSnapshot<T> snapshot() {
+        GraphSnapshot<T> snapshot = _snapshot;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = _snapshot;
+                if (snapshot == null) {
+                    snapshot = new GraphSnapshot<T>(_nodes.values());
+                    _snapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Saves this Graph in the given file, in the binary graph file format. Loading it back
+     * through GraphFile needs no text parsing, other than turning the string form of each
+     * Node's data back into the data.
+     * @param path - path of the file, overwritten if it already exists.
+     * @throws IOException if the file cannot be written.
+     * @see GraphFile#load(Path, java.util.function.Function)
+     */
+    public void save(Path path) throws IOException {
+        GraphFile.save(snapshot(), path);
+    }
+
+    /**
+     * Turns on or off the reachability index answering hasPath() queries. When on, the
+     * index is built by the first hasPath() query on the current snapshot of the Graph and
+     * reused by all following queries. Modifying the Graph discards the snapshot along with
+     * its index, which gets rebuilt by the next query. This pays off when the Graph changes
+     * rarely compared to how often it is queried.
+     * @param indexed - true to answer hasPath() through the index, false otherwise.
+     * @see ReachabilityIndex
+     */
+    public void setReachabilityIndexed(boolean indexed) {
+        _reachabilityIndexed = indexed;
+    }
+
     /**
      * Checks if the state of all the Nodes in the Graph matches a given value.
      * @param state - the value to check against all Nodes in the Graph.
@@ -91,16 +262,43 @@ public class Graph<T extends Comparable<T>> {
      */
     @Override
     public String toString() {
-        String output = "";
+        StringBuilder output = new StringBuilder();
+        try {
+            writeTo(output);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes the multi-line String representation of this Graph to the given output,
+     * one Node line at a time, without building the whole String in memory first.
+     * The output is identical to the String returned by toString(). Writing to a
+     * buffered output (e.g. a BufferedWriter) is recommended for large Graphs.
+     * @param out - the output the Graph is written to.
+     * @throws IOException if the output cannot be written.
+     * @see Graph#toString()
+     * @see GraphExporter
+     */
+    public void writeTo(Appendable out) throws IOException {
         boolean first = true;
         for(Node<T> n : _nodes.values()) {
             if (!first) {
-                output += "\n";
+                out.append('\n');
             }
-            output += n.toString();
+            n.writeTo(out);
             first = false;
         }
-        return output;
+    }
+
+    /**
+     * Gives a read-only view over the Nodes of this Graph, in the order of their labels.
+     * @return collection of the Nodes in this Graph.
+     */
+    Collection<Node<T>> getNodes() {
+        return Collections.unmodifiableCollection(_nodes.values());
     }
     
     /**
@@ -111,16 +309,42 @@ public class Graph<T extends Comparable<T>> {
      * @see Graph#removeNode(Object)
      */
     public void addNode(T data) {
+        insertNode(data);
+    }
+
+    /**
+     * Adds a new Node to the Graph containing the <i>data</i>.
+     * @param data - the data reference (of type T) contained in the new Node.
+     * @return the new Node.
+     * @throws RuntimeException if the Graph already contains a Node for the given data.
+     * @see Graph#addNode(Comparable)
+     */
+    Node<T> insertNode(T data) {
         Node<T> node = new Node<T>(data);
         String label = node.getLabel();
-        if (_nodes.containsKey(label)) {
+        int id = _labels.intern(label);
+        if (id < _nodesById.size() && _nodesById.get(id) != null) {
             throw new RuntimeException("Ambiguous graph!");
         }
+        node.setId(id);
+        if (id == _nodesById.size()) {
+            _nodesById.add(node);
+        } else {
+            _nodesById.set(id, node);
+        }
         _nodes.put(label, node);
+        _snapshot = null;
+        changed(node);
+        if (!_partitionsDirty) {
+            _partitions.makeSet(node.getId());
+        }
+        _inHistogram.add(0);
+        _outHistogram.add(0);
+        return node;
     }
     
     /**
-     * Adds a new directed Edge to the Graph, linking the Nodes identified by
+     * Adds a new directed Edge of weight 1 to the Graph, linking the Nodes identified by
      * <i>fromKey</i> and <i>toKey</i>. The keys can be either data instances or
      * labels (Strings) from within the target nodes. It is expected the two 
      * nodes exist otherwise the method throws an exception.
@@ -131,32 +355,124 @@ public class Graph<T extends Comparable<T>> {
      * @see Graph#removeEdge(Object, Object)
      */
     public void addEdge(Object fromKey, Object toKey) {
-        Node<T> fromNode = _nodes.get(Node.getLabel(fromKey));
-        Node<T> toNode = _nodes.get(Node.getLabel(toKey));
+        addEdge(fromKey, toKey, 1);
+    }
+
+    /**
+     * Adds a new directed Edge of the given weight to the Graph, linking the Nodes
+     * identified by <i>fromKey</i> and <i>toKey</i>. If the Edge already exists only
+     * its weight is updated. The weight stands for the length of the Edge in the
+     * Dijkstra distances and it cannot be negative.
+     * @param fromKey - data or label of the node where the Edge is starting.
+     * @param toKey - data or label of the node where the Edge is ending.
+     * @param weight - the weight (length) of the Edge.
+     * @throws RuntimeException if either of the two Nodes are not present in the Graph
+     * or if the weight is negative.
+     * @see Graph#dijkstra(Comparable)
+     */
+    public void addEdge(Object fromKey, Object toKey, int weight) {
+        Node<T> fromNode = getNode(fromKey);
+        Node<T> toNode = getNode(toKey);
         if (fromNode == null || toNode == null) {
             throw new RuntimeException("Node(s) not in the graph!");
         }
-        fromNode.addEdge(toNode);
+        if (weight < 0) {
+            throw new RuntimeException("Negative edge weight!");
+        }
+        link(fromNode, toNode, weight);
+    }
+
+    /**
+     * Adds the directed Edge of the given weight linking two Nodes of the Graph,
+     * without looking them up again.
+     * @param fromNode - the Node where the Edge is starting.
+     * @param toNode - the Node where the Edge is ending.
+     * @param weight - the weight (length) of the Edge, not negative.
+     * @see Graph#addEdge(Object, Object, int)
+     */
+    void link(Node<T> fromNode, Node<T> toNode, int weight) {
+        int outDegree = fromNode.getOutDegree();
+        int inDegree = toNode.getInDegree();
+        fromNode.addEdge(toNode, weight);
+        _outHistogram.move(outDegree, fromNode.getOutDegree());
+        _inHistogram.move(inDegree, toNode.getInDegree());
+        _snapshot = null;
+        changed(fromNode);
+        if (!_partitionsDirty) {
+            _partitions.union(fromNode.getId(), toNode.getId());
+        }
     }
     
     /**
      * Removes the Node identified by a given key. The key can be either a
      * data (instance of T) or the label (string) within the target node. 
+     * Only the Edges of the Node are visited, through its incoming (ingress) and
+     * outgoing (egress) edges, such that the removal runs in O(degree).
      * @param key - node data or label.
      * @return the data in the node being removed, if one exist, or null otherwise.
      * @throws RuntimeException if the Node does not exist in the Graph.
      * @see Graph#addNode(Object)
+     * @see Graph#removeNodes(Collection)
      */
     public T removeNode(Object key) {
-        Node<T> node = _nodes.get(Node.getLabel(key));
-        if (node == null) {
-            throw new RuntimeException("Node does not exist in graph!");
+        return removeNodes(Collections.singleton(key)).get(0);
+    }
+
+    /**
+     * Removes all the Nodes identified by the given keys, in one batch. The keys can be
+     * either data (instances of T) or labels (strings) within the target nodes.
+     * Edges linking two removed Nodes are dropped along with the Nodes, only the Edges
+     * leading to or from the remaining Nodes get unlinked. The snapshot and the partitions
+     * of the Graph are invalidated once for the whole batch.
+     * @param keys - the data or labels of the Nodes to be removed.
+     * @return the data in the removed Nodes, in the order of the keys.
+     * @throws RuntimeException if any of the Nodes does not exist in the Graph, or if
+     * any Node is identified by more than one key (e.g. once by its data and once by its
+     * label), in which case the Graph is left unchanged.
+     * @see Graph#removeNode(Object)
+     */
+    public ArrayList<T> removeNodes(Collection<?> keys) {
+        Set<Node<T>> removed = new LinkedHashSet<Node<T>>();
+        for (Object key : keys) {
+            Node<T> node = getNode(key);
+            if (node == null) {
+                throw new RuntimeException("Node does not exist in graph!");
+            }
+            if (!removed.add(node)) {
+                throw new RuntimeException("Node given more than once!");
+            }
         }
-        for(Node<T> n : _nodes.values()) {
-            n.removeEdge(node);
+        ArrayList<T> data = new ArrayList<T>();
+        for (Node<T> node : removed) {
+            _inHistogram.remove(node.getInDegree());
+            _outHistogram.remove(node.getOutDegree());
         }
-        _nodes.remove(node.getLabel());
-        return node.getData();
+        for (Node<T> node : removed) {
+            for (Node<T> n : new ArrayList<Node<T>>(node.getInEdges())) {
+                if (!removed.contains(n)) {
+                    int outDegree = n.getOutDegree();
+                    n.removeEdge(node);
+                    _outHistogram.move(outDegree, n.getOutDegree());
+                    changed(n);
+                }
+            }
+            for (Node<T> n : new ArrayList<Node<T>>(node.getEdges())) {
+                if (!removed.contains(n)) {
+                    int inDegree = n.getInDegree();
+                    node.removeEdge(n);
+                    _inHistogram.move(inDegree, n.getInDegree());
+                }
+            }
+            _nodes.remove(node.getLabel());
+            _nodesById.set(node.getId(), null);
+            changed(node);
+            data.add(node.getData());
+        }
+        if (!removed.isEmpty()) {
+            _snapshot = null;
+            _partitionsDirty = true;
+        }
+        return data;
     }
     
     /**
@@ -171,12 +487,27 @@ public class Graph<T extends Comparable<T>> {
      * @see Graph#addEdge(Object, Object)
      */
     public void removeEdge(Object fromKey, Object toKey) {
-        Node<T> fromNode = _nodes.get(Node.getLabel(fromKey));
-        Node<T> toNode = _nodes.get(Node.getLabel(toKey));
+        Node<T> fromNode = getNode(fromKey);
+        Node<T> toNode = getNode(toKey);
         if (fromNode == null || toNode == null) {
             throw new RuntimeException("Node(s) not in the graph!");
         }
+        unlink(fromNode, toNode);
+        _snapshot = null;
+        changed(fromNode);
+        _partitionsDirty = true;
+    }
+
+    /**
+     * Removes the Edge linking fromNode to toNode, if one exists,
+     * and moves the two Nodes to their new degrees in the histograms.
+     */
+    private void unlink(Node<T> fromNode, Node<T> toNode) {
+        int outDegree = fromNode.getOutDegree();
+        int inDegree = toNode.getInDegree();
         fromNode.removeEdge(toNode);
+        _outHistogram.move(outDegree, fromNode.getOutDegree());
+        _inHistogram.move(inDegree, toNode.getInDegree());
     }
     
         /**
@@ -184,50 +515,23 @@ public class Graph<T extends Comparable<T>> {
      * @return true if Graph is undirected, false otherwise.
      */
     public boolean isUGraph() {
-        boolean uGraph = true;
         for(Node<T> node : _nodes.values()) {
             if (!node.isUNode()) {
-                uGraph = false;
-                break;
+                return false;
             }
         }
-        setState(null);
-        return uGraph;
+        return true;
     }
 
     /**
-     * Checks is the Graph is connected.
+     * Checks is the Graph is connected, that is if all its Nodes are linked to
+     * each other by edges followed in either direction. The check is done in a
+     * single O(V+E) pass over the Graph's snapshot.
      * @return true if the Graph is connected, false otherwise.
+     * @see GraphSnapshot#isConnected()
      */
     public boolean isConnected() {
-        boolean connected = true;
-        Iterator<Node<T>> iNodes = _nodes.values().iterator();
-        while(connected && iNodes.hasNext()) {
-            Node<T> node = iNodes.next();
-            // traverse the grap starting from node
-            node.traverse();
-            
-            // expand the visited nodes based on proximity
-            // to other visited nodes. Stop when no expansion happened.
-            boolean again = true;
-            while (again) {
-                again = false;
-                for (Node<?> n : _nodes.values()) {
-                    again = again || n.expand();
-                }
-            }
-            
-            // verify if any node was left not visited
-            for (Node<?> n : _nodes.values()) {
-                if (n.getState() == null) {
-                    connected = false;
-                    break;
-                }
-            }
-        }
-        
-        setState(null);
-        return connected;
+        return snapshot().isConnected();
     }
 
     /**
@@ -235,35 +539,37 @@ public class Graph<T extends Comparable<T>> {
      * @return true if Graph is Directed Acyclic, false otherwise.
      */
     public boolean isDAGraph() {
-        boolean dag = true;
-        Iterator<Node<T>> iNodes = _nodes.values().iterator();
-        while(dag && iNodes.hasNext()) {
-            Node<T> n = iNodes.next();
-            dag = !n.loops(n);
-            setState(null);
-        }        
-        return dag;
+        return topoSort() != null;
     }
 
     /**
-     * Generates the adjacency matrix for this Graph.
+     * Generates the adjacency matrix for this Graph. Rows and columns follow the
+     * order of the Nodes' labels, which is also the order of the snapshot ids.
+     * <br><u>Note:</u> The matrix takes O(V&sup2;) memory, for large Graphs use
+     * getAdjacencyBitMatrix() or getSparseAdjacencyMatrix() instead.
      * @return the adjacency matrix.
      */
     public int[][] getAdjacencyMatrix() {
-        int[][] arr = new int[this.size()][this.size()];
-        Map<Node<T>, Integer> map = new HashMap<Node<T>, Integer>();
-        int iN = 0;
-        for(Node<T> n : _nodes.values()) {
-            map.put(n, iN++);
-        }
-        for(Node<T> n : _nodes.values()) {
-            int i = map.get(n);
-            for(Node<T> nn : n.getNeighbors()) {
-                int j = map.get(nn);
-                arr[i][j] = 1;
-            }
-        }
-        return arr;
+        return snapshot().getAdjacencyMatrix();
+    }
+
+    /**
+     * Generates the adjacency matrix for this Graph as a bit matrix, taking 1 bit per entry.
+     * Rows and columns follow the order of the Nodes' labels.
+     * @return the adjacency bit matrix.
+     * @see BitMatrix#reachableWithin(int)
+     */
+    public BitMatrix getAdjacencyBitMatrix() {
+        return snapshot().getBitMatrix();
+    }
+
+    /**
+     * Generates the adjacency matrix for this Graph as a sparse matrix, holding the weight
+     * of each Edge. Rows and columns follow the order of the Nodes' labels.
+     * @return the sparse adjacency matrix.
+     */
+    public SparseMatrix getSparseAdjacencyMatrix() {
+        return snapshot().getSparseMatrix();
     }
     
         /**
@@ -274,13 +580,7 @@ public class Graph<T extends Comparable<T>> {
     public TreeMap<Integer, TreeSet<T>> getOutDegrees() {
         TreeMap<Integer, TreeSet<T>> map = new TreeMap<Integer, TreeSet<T>>();
         for(Node<T> n : _nodes.values()) {
-            int outDegree = n.getNeighbors().size();
-            TreeSet<T> set = map.get(outDegree);
-            if (set == null) {
-                set = new TreeSet<T>();
-                map.put(outDegree, set);
-            }
-            set.add(n.getData());
+            groupBy(map, n.getOutDegree(), n.getData());
         }
         return map;
     }
@@ -292,151 +592,196 @@ public class Graph<T extends Comparable<T>> {
      */
     public TreeMap<Integer, TreeSet<T>> getInDegrees() {
         TreeMap<Integer, TreeSet<T>> map = new TreeMap<Integer, TreeSet<T>>();
-        for(Node<T> node : _nodes.values()) {
-            int inDegree = 0;
-            for (Node<T> other : _nodes.values()) {
-                if (node == other) {
-                    continue;
-                }
-                if (other.getNeighbors().contains(node)) {
-                    inDegree++;
-                }
-            }
-            
-            TreeSet<T> set = map.get(inDegree);
-            if (set == null) {
-                set = new TreeSet<T>();
-                map.put(inDegree, set);
-            }
-            set.add(node.getData());
+        for(Node<T> n : _nodes.values()) {
+            groupBy(map, n.getInDegree(), n.getData());
         }
-        
         return map;
     }
 
+    private void groupBy(TreeMap<Integer, TreeSet<T>> map, int key, T data) {
+        TreeSet<T> set = map.get(key);
+        if (set == null) {
+            set = new TreeSet<T>();
+            map.put(key, set);
+        }
+        set.add(data);
+    }
+
+    /**
+     * Gets the histogram of the in-degrees of the Nodes in this Graph. The histogram is
+     * a live view, updated in O(1) as Edges are added or removed, such that it can be
+     * read repeatedly without being recomputed.
+     * @return the number of Nodes (value) for each in-degree (key).
+     * @see DegreeHistogram
+     */
+    public DegreeHistogram getInDegreeHistogram() {
+        return _inHistogram;
+    }
+
+    /**
+     * Gets the histogram of the out-degrees of the Nodes in this Graph. The histogram is
+     * a live view, updated in O(1) as Edges are added or removed, such that it can be
+     * read repeatedly without being recomputed.
+     * @return the number of Nodes (value) for each out-degree (key).
+     * @see DegreeHistogram
+     */
+    public DegreeHistogram getOutDegreeHistogram() {
+        return _outHistogram;
+    }
+
     /**
      * Generates the topological sort of this graph, where all nodes in the graph
-     * are grouped by their index in topological order. The first index is 0.
+     * are grouped by their index in topological order. The first index is 0 and
+     * the index of any other node is the length of the longest path leading to it.
+     * <br>The sort is done in a single O(V+E) pass (Kahn's algorithm): a node is
+     * placed once all the nodes pointing to it have been placed. Nodes which never
+     * get placed are part of, or reachable from, a cycle.
      * @return a map associating each position in the topological sort (key)
      * with the set of Nodes at that position (value). If the Graph is not DAG, the method 
      * returns null.
+     * @see GraphSnapshot#topoSort()
      */
     public TreeMap<Integer, TreeSet<T>> topoSort() {
-        // return promptly if the graph is not directed, acyclic
-        if (!this.isDAGraph()) {
-            return null;
-        }
-        
-        // Set state for all nodes to (int)0
-        setState(0);
-        // place all nodes in a queue
-        Queue<Node<T>> queue = new LinkedList<Node<T>>(this._nodes.values());
-        // as long as the queue is not empty ...
-        while(!queue.isEmpty()) {
-            // ... remove the first node from the queue
-            // and have it check all its neighbors that need touched.
-            // If any, they are returned back to be added to the queue for another check.
-            Node<T> node = queue.remove();
-            Queue<Node<T>> modifiedNodes = node.topoCheck();
-            queue.addAll(modifiedNodes);
-        }
-        
-        // All nodes have their topo order in the state field. Group them in the returning map
-        TreeMap<Integer, TreeSet<T>> map = new TreeMap<Integer, TreeSet<T>>();
-        for (Node<T> n : _nodes.values()) {
-            int topoSort = (int)n.getState();
-            TreeSet<T> set = map.get(topoSort);
-            if (set == null) {
-                set = new TreeSet<T>();
-                map.put(topoSort, set);
+        return snapshot().topoSort();
+    }
+
+    /**
+     * Gets the disjoint-set tracking the partitions of the Graph, rebuilding it first
+     * if Edges or Nodes were removed since it was last used.
+     * @return the disjoint-set of the Graph's partitions.
+     */
+    private DisjointSet partitions() {
+        if (_partitionsDirty) {
+            _partitions = new DisjointSet();
+            for (Node<T> n : _nodes.values()) {
+                _partitions.makeSet(n.getId());
             }
-            set.add(n.getData());
+            for (Node<T> n : _nodes.values()) {
+                for (Node<T> other : n.getEdges()) {
+                    _partitions.union(n.getId(), other.getId());
+                }
+            }
+            _partitionsDirty = false;
         }
-
-        setState(null);
-        return map;
+        return _partitions;
     }
 
     /**
-     * Generates the count of the partitions in the graph.
+     * Generates the count of the partitions in the graph. A partition is a weakly
+     * connected component: no edge links a node inside of it with a node outside of it.
+     * <br>The partitions are tracked by a disjoint-set kept up to date as Nodes and Edges
+     * are added, so the count is returned in O(1). Removing Edges or Nodes costs one
+     * O(V+E) rebuild, done by the next partition query.
      * @return count of partitions.
      */
-    public int countPartitions() {
-        // counter to receive the final number of partitions
-        int partition = 0;
-        // Set state for all nodes to (int)0
-        setState(partition);
-
-        // Group all nodes by their partition
-        Map<Integer, List<Node<T>>> partitions = new TreeMap<Integer, List<Node<T>>>();
-
-        // Put all the graph's nodes in a queue
-        Queue<Node<T>> q = new LinkedList<Node<T>>(_nodes.values());
-
-        // q contains all unmarked nodes. Loop through it until it drains out
-        while(!q.isEmpty()) {
-            // increment the partition count and mark all nodes with that partition
-            partition++;
-            q.peek().mark(partition);
-
-            // iterate through all nodes, and if they are not already marked
-            // and are linked to any of the other mark nodes, mark them as well.
-            // And do this until there's no change in the graph.
-            boolean again = true;
-            while (again) {
-                again = false;
-                for(Node<T> n : _nodes.values()) {
-                    if ((int)n.getState() == 0 && n.nextToMark(partition)) {
-                        n.mark(partition);
-                        again = true;
-                    }
-                }
-            }
+    public synchronized int countPartitions() {
+        return partitions().getCount();
+    }
 
-            // All nodes that could be marked, were marked. Time to collect them
-            partitions.put(partition, new LinkedList<Node<T>>());
-            for (int i = q.size(); i > 0; i--) {
-                Node<T> n = q. remove();
-                if ((int)n.getState() == partition) {
-                    partitions.get(partition).add(n);
-                } else {
-                    q.add(n);
-                }
-            }
+    /**
+     * Checks if the nodes identified by the two keys are in the same partition.
+     * The keys can be either data instances or labels (Strings) of the nodes.
+     * @param key1 - data or label of the first node.
+     * @param key2 - data or label of the second node.
+     * @return true if the two nodes are in the same partition, false otherwise.
+     * @throws RuntimeException if either of the two Nodes are not present in the Graph.
+     * @see Graph#countPartitions()
+     */
+    public synchronized boolean inSamePartition(Object key1, Object key2) {
+        Node<T> node1 = getNode(key1);
+        Node<T> node2 = getNode(key2);
+        if (node1 == null || node2 == null) {
+            throw new RuntimeException("Node(s) not in the graph!");
         }
+        DisjointSet partitions = partitions();
+        return partitions.find(node1.getId()) == partitions.find(node2.getId());
+    }
 
-        setState(null);
-        System.out.println(partitions);
-        return partitions.keySet().size();
+    /**
+     * Generates a map grouping all nodes in the graph by their strongly connected component.
+     * Each node in a strongly connected component can be reached from any other node in the
+     * same component. The components are numbered in reverse topological order, such that an
+     * edge linking two different components always leads from a higher to a lower index.
+     * @return a map associating the index of each strongly connected component (key)
+     * with the set of nodes in that component (value).
+     * @see GraphSnapshot#getStronglyConnectedComponents()
+     */
+    public TreeMap<Integer, TreeSet<T>> getStronglyConnectedComponents() {
+        return snapshot().getStronglyConnectedComponents();
     }
-    
+
     /**
      * Generates the Dijkstra distances between the node containing fromData and all the
-     * other nodes in the graph.
+     * other nodes in the graph. The distance between two nodes is the smallest sum of
+     * the weights of the edges on a path linking them.
      * @param fromData
      * @return a map where the key is each Node in the Graph (given by its data)
-     * and the value is the Dijkstra distance from the <i>source</i> Node to that node.
+     * and the value is the Dijkstra distance from the <i>source</i> Node to that node,
+     * or -1 if that node cannot be reached. If the source node is not in the Graph, the
+     * method returns null.
+     * @throws ArithmeticException if a distance does not fit in an int.
+     * @see GraphSnapshot#dijkstra(Comparable)
      */
     public TreeMap<T, Integer> dijkstra(T fromData) {
-        setState(0);
-        TreeMap<T, Integer> distances = null;
-        Node<T> fromNode = _nodes.get(Node.getLabel(fromData));
-        if (fromNode != null) {
-            setState(Integer.MAX_VALUE);
-            distances = new TreeMap<T, Integer>();
-            // calculate dijkstra distances starting fromNode
-            fromNode.dijkstra(0);
-            // build map
-            for(Node<T> n : _nodes.values()) {
-                int distance = (int)n.getState();
-                if (distance == Integer.MAX_VALUE) {
-                    distance = -1;
-                }
-                distances.put(n.getData(), distance);
-            }
-            setState(null);
-        }
-        return distances;
+        return snapshot().dijkstra(fromData);
+    }
+
+    /**
+     * Generates the breadth-first distances between the node containing fromData and all
+     * the other nodes in the graph: the number of edges on the shortest path linking them.
+     * When all the Edges have weight 1, the result is the same as dijkstra(), computed by
+     * a parallel breadth-first search on the common ForkJoinPool.
+     * @param fromData - data in the source node.
+     * @return a map where the key is each Node in the Graph (given by its data)
+     * and the value is the number of edges from the <i>source</i> Node to that node,
+     * or -1 if that node cannot be reached. If the source node is not in the Graph, the
+     * method returns null.
+     * @see GraphSnapshot#breadthFirstDistances(Comparable, java.util.concurrent.ForkJoinPool)
+     */
+    public TreeMap<T, Integer> breadthFirstDistances(T fromData) {
+        return snapshot().breadthFirstDistances(fromData);
+    }
+
+    /**
+     * Generates the eccentricity of each Node: the largest Dijkstra distance from the Node
+     * to any Node it can reach. The distances from all the Nodes are computed in parallel.
+     * @return a map associating each Node's data (key) with its eccentricity (value).
+     * @see GraphSnapshot#forEachDistanceRow(GraphSnapshot.DistanceRowConsumer)
+     */
+    public TreeMap<T, Integer> getEccentricities() {
+        return snapshot().getEccentricities();
+    }
+
+    /**
+     * Gets the diameter of the Graph: the largest Dijkstra distance between two Nodes such
+     * that the second one can be reached from the first one.
+     * @return the diameter, or 0 if no Node reaches any other Node.
+     */
+    public int getDiameter() {
+        return snapshot().getDiameter();
+    }
+
+    /**
+     * Generates the closeness centrality of each Node: the inverse of the average Dijkstra
+     * distance to the Nodes it can reach, or 0 if it reaches no other Node. A Node reaching
+     * other Nodes at distance 0 only, over Edges of weight 0, has an infinite closeness.
+     * @return a map associating each Node's data (key) with its closeness (value).
+     */
+    public TreeMap<T, Double> getClosenessCentralities() {
+        return snapshot().getClosenessCentralities();
+    }
+
+    /**
+     * Generates the tree of the shortest paths starting in the node containing fromData.
+     * @param fromData - data in the source node.
+     * @return a map where the key is each Node reachable from the <i>source</i> Node
+     * (given by its data) and the value is the previous node on the shortest path
+     * leading to it. The source node is mapped to itself. If the source node is not
+     * in the Graph, the method returns null.
+     * @see GraphSnapshot#dijkstraTree(Comparable)
+     */
+    public TreeMap<T, T> dijkstraTree(T fromData) {
+        return snapshot().dijkstraTree(fromData);
     }
     
     /**
@@ -446,17 +791,7 @@ public class Graph<T extends Comparable<T>> {
      * @return true if graph is eulerian, false otherwise.
      */
     public boolean isEulerian() {
-        if (!isConnected()) {
-            return false;
-        }
-
-        for(Node<T> n : this._nodes.values()) {
-            if (!n.isEulerian()) {
-                return false;
-            }
-        }
-
-        return true;
+        return snapshot().isEulerian();
     }
 
     /**
@@ -467,41 +802,23 @@ public class Graph<T extends Comparable<T>> {
      * @return the path in the form 
      */
     public ArrayList<T> getCycle(T data) {
-        Node<T> node = _nodes.get(Node.getLabel(data));
+        Node<T> node = getNode(data);
         if (node == null) {
             throw new RuntimeException("Node not in the graph!");
         }
-        // reset the graph
-        setState(null);
         // get the path starting from node and leading back to the same node 
-        return node.getPath(node);
+        return snapshot().getCycle(data);
     }
 
     /**
      * An eulerian circuit is a path in the graph traversing all edges but exactly once.
-     * Determine an eulerian circuit in the graph.
-     * @return - array list of nodes' data, in the order of the circuit.
+     * Determine an eulerian circuit in the graph, in O(V+E).
+     * @return - array list of nodes' data, in the order of the circuit, or null
+     * if the graph is not eulerian.
+     * @see GraphSnapshot#getEulerianCircuit()
      */
     public ArrayList<T> getEulerianCircuit() {
-        // if graph is not eulerian, return null
-        if (!isEulerian()) {
-            return null;
-        }
-        // reset the graph
-        setState(null);
-        // initialize the resulting cycle with any node, if it exists
-        ArrayList<T> cycle = new ArrayList<T>();
-        if (_nodes.size() != 0) {
-            cycle.add(_nodes.values().iterator().next().getData());
-        }
-        for(int i = 0; i < cycle.size(); i++) {
-            Node<T> n = _nodes.get(Node.getLabel(cycle.get(i)));
-            if (n.hasUnvisited()) {
-                ArrayList<T> newCycle = n.getPath(n);
-                cycle.addAll(i+1, newCycle);
-            }
-        }
-        return cycle;
+        return snapshot().getEulerianCircuit();
     }
 
         /**
@@ -513,13 +830,16 @@ public class Graph<T extends Comparable<T>> {
      * @throws RuntimeException if a node cannot be found in the graph.
      */
     public boolean hasPath(T fromData, T toData) throws RuntimeException {
-        Node<T> fromNode = _nodes.get(Node.getLabel(fromData));
-        Node<T> toNode = _nodes.get(Node.getLabel(toData));
+        Node<T> fromNode = getNode(fromData);
+        Node<T> toNode = getNode(toData);
         if (fromNode == null || toNode == null) {
             throw new RuntimeException("Node(s) not in the graph!");
         }
-        
-        setState(null);
-        return fromNode.hasPath(toNode);
+
+        if (_reachabilityIndexed) {
+            GraphSnapshot<T> snapshot = snapshot();
+            return snapshot.getReachabilityIndex().hasPath(snapshot.getId(fromData), snapshot.getId(toData));
+        }
+        return snapshot().hasPath(fromData, toData);
     }
 }
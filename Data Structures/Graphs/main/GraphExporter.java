@@ -0,0 +1,96 @@
+package Graphs.main;
+
+import java.io.IOException;
+
+/**
+ * Class definition for the exporters writing a Graph out in formats read by other tools.
+ * Like Graph.writeTo(), each exporter streams its output one Node (or Edge) at a time,
+ * such that exporting a large Graph does not need to hold the whole output in memory.
+ * <br>E.g.:<pre>
+ * try (Writer out = Files.newBufferedWriter(path)) {
+ *     GraphExporter.writeDot(graph, out);
+ * }</pre>
+ * @see Graph#writeTo(Appendable)
+ */
+public class GraphExporter {
+
+    private GraphExporter() {
+    }
+
+    /**
+     * Writes the Graph in the DOT language of Graphviz, as a digraph. Each Node is
+     * declared by its label, with its data as display label, then each Edge is
+     * written with its weight as display label (the Graphviz weight attribute is a
+     * layout hint, not shown on the drawing). E.g.:
+     * <pre>
+     * digraph {
+     *   "A" [label="A : first"];
+     *   "B" [label="B : second"];
+     *   "A" -> "B" [label=1];
+     * }
+     * </pre>
+     * @param graph - the Graph to be exported.
+     * @param out - the output the Graph is written to.
+     * @throws IOException if the output cannot be written.
+     */
+    public static <T extends Comparable<T>> void writeDot(Graph<T> graph, Appendable out) throws IOException {
+        out.append("digraph {\n");
+        for (Node<T> node : graph.getNodes()) {
+            out.append("  ");
+            writeDotId(node.getLabel(), out);
+            out.append(" [label=");
+            writeDotId(node.getData().toString(), out);
+            out.append("];\n");
+        }
+        for (Node<T> node : graph.getNodes()) {
+            for (Node<T> other : node.getEdges()) {
+                out.append("  ");
+                writeDotId(node.getLabel(), out);
+                out.append(" -> ");
+                writeDotId(other.getLabel(), out);
+                out.append(" [label=").append(String.valueOf(node.getWeight(other))).append("];\n");
+            }
+        }
+        out.append("}\n");
+    }
+
+    /**
+     * Writes a DOT quoted identifier, escaping the quotes and backslashes it contains.
+     */
+    private static void writeDotId(String text, Appendable out) throws IOException {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    /**
+     * Writes the Edges of the Graph as an edge list, one Edge per line:
+     * the labels of its two Nodes and its weight, separated by spaces. E.g.:
+     * <pre>
+     * A B 1
+     * A C 5
+     * </pre>
+     * Nodes without any Edge do not appear in the edge list.
+     * @param graph - the Graph to be exported.
+     * @param out - the output the Edges are written to.
+     * @throws IOException if the output cannot be written.
+     */
+    public static <T extends Comparable<T>> void writeEdgeList(Graph<T> graph, Appendable out) throws IOException {
+        for (Node<T> node : graph.getNodes()) {
+            for (Node<T> other : node.getEdges()) {
+                out.append(node.getLabel())
+                    .append(' ')
+                    .append(other.getLabel())
+                    .append(' ')
+                    .append(String.valueOf(node.getWeight(other)))
+                    .append('\n');
+            }
+        }
+    }
+}
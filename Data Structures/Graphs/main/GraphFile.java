@@ -0,0 +1,242 @@
+package Graphs.main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.function.Function;
+
+/**
+ * Class definition for the binary graph file format, saving a Graph in the same compact
+ * form as its GraphSnapshot such that loading it back needs no text parsing. The file
+ * is a sequence of little-endian int sections, in this order:
+ * <pre>
+ * header:       MAGIC, VERSION, nodeCount (n), edgeCount (m), stringBytes (s)
+ * string table: n+1 byte offsets, then s bytes of UTF-8 text padded to a multiple of 4
+ * offsets:      n+1 ints, start index in targets of the outgoing edges of each node
+ * targets:      m ints, ids of the nodes targeted by the outgoing edges
+ * weights:      m ints, weights of the outgoing edges
+ * </pre>
+ * The text of node i is the string form of its data, bytes [stringOffsets[i], stringOffsets[i+1]).
+ * <br>Loading maps the file in memory through FileChannel.map and copies each section
+ * in bulk into the arrays of a new GraphSnapshot. The only per-node work left is turning
+ * the text of each node back into its data, through the parser given by the caller.
+ * @see Graph#save(Path)
+ * @see GraphSnapshot
+ */
+public class GraphFile {
+
+    /**
+     * First int of every graph file: "GRPH" in ASCII.
+     */
+    public static final int MAGIC = 0x47525048;
+
+    /**
+     * Version of the format written by save(). Loading rejects any other version.
+     */
+    public static final int VERSION = 1;
+
+    // number of ints in the header
+    private static final int _HEADER_INTS = 5;
+
+    // size of the buffer used for writing, and largest region mapped at once
+    private static final int _CHUNK_BYTES = 1 << 20;
+    private static final long _MAX_MAP_BYTES = 1L << 30;
+
+    private GraphFile() {
+    }
+
+    /**
+     * Saves the snapshot in the given file, overwriting it if it already exists.
+     * @param snapshot - the snapshot to be saved.
+     * @param path - path of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save(GraphSnapshot<?> snapshot, Path path) throws IOException {
+        int n = snapshot.size();
+        byte[][] texts = new byte[n][];
+        int[] stringOffsets = new int[n + 1];
+        for (int id = 0; id < n; id++) {
+            texts[id] = snapshot.getData(id).toString().getBytes(StandardCharsets.UTF_8);
+            stringOffsets[id + 1] = stringOffsets[id] + texts[id].length;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(_CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            writeInts(channel, buffer, new int[] {
+                MAGIC, VERSION, n, snapshot.edgeCount(), stringOffsets[n]
+            });
+            writeInts(channel, buffer, stringOffsets);
+            for (byte[] text : texts) {
+                for (int i = 0; i < text.length; ) {
+                    flushIfFull(channel, buffer);
+                    int count = Math.min(buffer.remaining(), text.length - i);
+                    buffer.put(text, i, count);
+                    i += count;
+                }
+            }
+            for (int pad = stringOffsets[n]; pad % 4 != 0; pad++) {
+                flushIfFull(channel, buffer);
+                buffer.put((byte)0);
+            }
+            writeInts(channel, buffer, snapshot.getOffsets());
+            writeInts(channel, buffer, snapshot.getTargets());
+            writeInts(channel, buffer, snapshot.getWeights());
+            flush(channel, buffer);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            flushIfFull(channel, buffer);
+            IntBuffer ints = buffer.asIntBuffer();
+            int count = Math.min(ints.remaining(), values.length - i);
+            ints.put(values, i, count);
+            buffer.position(buffer.position() + 4 * count);
+            i += count;
+        }
+    }
+
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Loads the snapshot saved in the given file.
+     * @param path - path of the file.
+     * @param parser - builds the data of a node from the string form it was saved with.
+     * @return the snapshot saved in the file.
+     * @throws IOException if the file cannot be read.
+     * @throws RuntimeException if the file is not a graph file of a supported version,
+     * or if its content is inconsistent.
+     */
+    public static <T extends Comparable<T>> GraphSnapshot<T> loadSnapshot(Path path, Function<String, T> parser) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < 4 * _HEADER_INTS) {
+                throw new RuntimeException("Invalid graph file!");
+            }
+            int[] header = readInts(channel, 0, _HEADER_INTS);
+            if (header[0] != MAGIC) {
+                throw new RuntimeException("Invalid graph file!");
+            }
+            if (header[1] != VERSION) {
+                throw new RuntimeException("Unsupported graph file version!");
+            }
+            int n = header[2];
+            int m = header[3];
+            int stringBytes = header[4];
+            // n + 1 offsets are read below: n must leave room for them, and cannot exceed
+            // the number of ints the file holds
+            if (n < 0 || n > Integer.MAX_VALUE - 1 || 4L * n > channel.size() || m < 0 || stringBytes < 0) {
+                throw new RuntimeException("Invalid graph file!");
+            }
+            long position = 4L * _HEADER_INTS;
+            long stringsPosition = position + 4L * (n + 1);
+            long offsetsPosition = stringsPosition + (stringBytes + 3L) / 4 * 4;
+            long targetsPosition = offsetsPosition + 4L * (n + 1);
+            long weightsPosition = targetsPosition + 4L * m;
+            if (channel.size() < weightsPosition + 4L * m) {
+                throw new RuntimeException("Invalid graph file!");
+            }
+
+            int[] stringOffsets = readInts(channel, position, n + 1);
+            if (stringOffsets[0] != 0 || stringOffsets[n] != stringBytes) {
+                throw new RuntimeException("Invalid graph file!");
+            }
+            ArrayList<T> data = new ArrayList<T>(n);
+            MappedByteBuffer strings = channel.map(MapMode.READ_ONLY, stringsPosition, stringBytes);
+            byte[] text = new byte[0];
+            for (int id = 0; id < n; id++) {
+                int length = stringOffsets[id + 1] - stringOffsets[id];
+                if (length < 0) {
+                    throw new RuntimeException("Invalid graph file!");
+                }
+                if (text.length < length) {
+                    text = new byte[length];
+                }
+                strings.position(stringOffsets[id]);
+                strings.get(text, 0, length);
+                data.add(parser.apply(new String(text, 0, length, StandardCharsets.UTF_8)));
+            }
+
+            int[] offsets = readInts(channel, offsetsPosition, n + 1);
+            int[] targets = readInts(channel, targetsPosition, m);
+            int[] weights = readInts(channel, weightsPosition, m);
+            if (offsets[0] != 0 || offsets[n] != m) {
+                throw new RuntimeException("Invalid graph file!");
+            }
+            for (int id = 0; id < n; id++) {
+                if (offsets[id] > offsets[id + 1]) {
+                    throw new RuntimeException("Invalid graph file!");
+                }
+            }
+            for (int k = 0; k < m; k++) {
+                if (targets[k] < 0 || targets[k] >= n || weights[k] < 0) {
+                    throw new RuntimeException("Invalid graph file!");
+                }
+            }
+            return new GraphSnapshot<T>(data, offsets, targets, weights);
+        }
+    }
+
+    /**
+     * Loads the Graph saved in the given file, by loading its snapshot then adding
+     * its Nodes and Edges to a new Graph.
+     * @param path - path of the file.
+     * @param parser - builds the data of a node from the string form it was saved with.
+     * @return the Graph saved in the file.
+     * @throws IOException if the file cannot be read.
+     * @throws RuntimeException if the file is not a graph file of a supported version,
+     * or if its content is inconsistent.
+     * @see GraphFile#loadSnapshot(Path, Function)
+     */
+    public static <T extends Comparable<T>> Graph<T> load(Path path, Function<String, T> parser) throws IOException {
+        GraphSnapshot<T> snapshot = loadSnapshot(path, parser);
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        int[] weights = snapshot.getWeights();
+        Graph<T> graph = new Graph<T>();
+        ArrayList<Node<T>> nodes = new ArrayList<Node<T>>(snapshot.size());
+        for (int id = 0; id < snapshot.size(); id++) {
+            nodes.add(graph.insertNode(snapshot.getData(id)));
+        }
+        for (int id = 0; id < snapshot.size(); id++) {
+            for (int k = offsets[id]; k < offsets[id + 1]; k++) {
+                graph.link(nodes.get(id), nodes.get(targets[k]), weights[k]);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Reads count ints starting at the given position of the file, mapping
+     * the file one region at a time.
+     */
+    private static int[] readInts(FileChannel channel, long position, int count) throws IOException {
+        int[] values = new int[count];
+        int maxInts = (int)(_MAX_MAP_BYTES / 4);
+        for (int i = 0; i < count; i += maxInts) {
+            int length = Math.min(maxInts, count - i);
+            MappedByteBuffer region = channel.map(MapMode.READ_ONLY, position + 4L * i, 4L * length);
+            region.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values, i, length);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,165 @@
+package Graphs.main;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Class definition for the generators of synthetic Graphs, used to measure how the graph
+ * algorithms scale with the size and the shape of the Graph. All the generated Graphs have
+ * Integer Nodes numbered from 0 and Edges of weight 1. The random generators are seeded,
+ * such that the same arguments always generate the same Graph.
+ * @see Graphs.benchmarks.GraphBenchmarks
+ */
+public class GraphGenerators {
+
+    private GraphGenerators() {
+    }
+
+    /**
+     * Creates a Graph with the Nodes 0 .. size-1 and no Edges.
+     */
+    private static ArrayList<Node<Integer>> addNodes(Graph<Integer> graph, int size) {
+        ArrayList<Node<Integer>> nodes = new ArrayList<Node<Integer>>(size);
+        for (int i = 0; i < size; i++) {
+            nodes.add(graph.insertNode(i));
+        }
+        return nodes;
+    }
+
+    /**
+     * Generates a chain: 0 --> 1 --> ... --> size-1. The chain is as deep as a Graph of
+     * that size can be, which stresses the recursion (or the stacks) of the traversals.
+     * @param size - the number of Nodes.
+     * @return the chain Graph.
+     */
+    public static Graph<Integer> chain(int size) {
+        Graph<Integer> graph = new Graph<Integer>();
+        ArrayList<Node<Integer>> nodes = addNodes(graph, size);
+        for (int i = 1; i < size; i++) {
+            graph.link(nodes.get(i - 1), nodes.get(i), 1);
+        }
+        return graph;
+    }
+
+    /**
+     * Generates a random directed Graph in the Erd&#337;s&ndash;R&eacute;nyi G(n, m) model:
+     * m = size &times; averageDegree Edges, each linking two Nodes picked uniformly at
+     * random. Self-loops are skipped and duplicate picks collapse into a single Edge, such
+     * that the Graph may end up with slightly fewer Edges.
+     * @param size - the number of Nodes.
+     * @param averageDegree - the average out-degree of the Nodes.
+     * @param seed - the seed of the random generator.
+     * @return the random Graph.
+     */
+    public static Graph<Integer> erdosRenyi(int size, double averageDegree, long seed) {
+        Random random = new Random(seed);
+        Graph<Integer> graph = new Graph<Integer>();
+        ArrayList<Node<Integer>> nodes = addNodes(graph, size);
+        long edges = (long)(size * averageDegree);
+        for (long e = 0; e < edges; e++) {
+            int from = random.nextInt(size);
+            int to = random.nextInt(size);
+            if (from != to) {
+                graph.link(nodes.get(from), nodes.get(to), 1);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Generates an undirected grid of rows &times; columns Nodes, where Node r &times; columns + c
+     * is linked both ways to its right and bottom neighbors. Every Node has as many incoming
+     * as outgoing Edges, so the grid is Eulerian.
+     * @param rows - the number of rows.
+     * @param columns - the number of columns.
+     * @return the grid Graph.
+     */
+    public static Graph<Integer> grid(int rows, int columns) {
+        Graph<Integer> graph = new Graph<Integer>();
+        ArrayList<Node<Integer>> nodes = addNodes(graph, rows * columns);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                Node<Integer> node = nodes.get(r * columns + c);
+                if (c + 1 < columns) {
+                    Node<Integer> right = nodes.get(r * columns + c + 1);
+                    graph.link(node, right, 1);
+                    graph.link(right, node, 1);
+                }
+                if (r + 1 < rows) {
+                    Node<Integer> bottom = nodes.get((r + 1) * columns + c);
+                    graph.link(node, bottom, 1);
+                    graph.link(bottom, node, 1);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Generates a scale-free Graph by preferential attachment (Barab&aacute;si&ndash;Albert):
+     * each new Node links to up to <i>edgesPerNode</i> of the Nodes added before it, picked
+     * with a probability proportional to their degree (incoming plus outgoing Edges) plus one.
+     * Picking a Node already linked to adds no Edge. A few hubs end up with very high
+     * in-degrees, as in social or web graphs. Edges lead from newer to older Nodes, so the
+     * Graph is a DAG.
+     * @param size - the number of Nodes.
+     * @param edgesPerNode - the number of Edges added with each new Node.
+     * @param seed - the seed of the random generator.
+     * @return the scale-free Graph.
+     */
+    public static Graph<Integer> preferentialAttachment(int size, int edgesPerNode, long seed) {
+        Random random = new Random(seed);
+        Graph<Integer> graph = new Graph<Integer>();
+        ArrayList<Node<Integer>> nodes = addNodes(graph, size);
+        // each Node appears once, plus once for each end of its Edges: picking a uniform
+        // entry picks a Node with a probability proportional to its degree + 1
+        int[] entries = new int[size + 2 * edgesPerNode * Math.max(0, size - 1)];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Node<Integer> node = nodes.get(i);
+            if (i > 0) {
+                // the picks are among the entries of the older Nodes only
+                int older = count;
+                for (int e = 0; e < edgesPerNode; e++) {
+                    int target = entries[random.nextInt(older)];
+                    int outDegree = node.getOutDegree();
+                    graph.link(node, nodes.get(target), 1);
+                    // linking to the same target again only re-weights the Edge
+                    if (node.getOutDegree() > outDegree) {
+                        entries[count++] = i;
+                        entries[count++] = target;
+                    }
+                }
+            }
+            entries[count++] = i;
+        }
+        return graph;
+    }
+
+    /**
+     * Generates a layered DAG: <i>layers</i> layers of <i>width</i> Nodes each, where every
+     * Node links to <i>edgesPerNode</i> random Nodes of the next layer. The topological sort
+     * of the Graph places each layer at its own position.
+     * @param layers - the number of layers.
+     * @param width - the number of Nodes in each layer.
+     * @param edgesPerNode - the number of Edges from each Node to the next layer.
+     * @param seed - the seed of the random generator.
+     * @return the layered DAG.
+     */
+    public static Graph<Integer> dagLayers(int layers, int width, int edgesPerNode, long seed) {
+        Random random = new Random(seed);
+        Graph<Integer> graph = new Graph<Integer>();
+        ArrayList<Node<Integer>> nodes = addNodes(graph, layers * width);
+        for (int layer = 0; layer + 1 < layers; layer++) {
+            for (int i = 0; i < width; i++) {
+                Node<Integer> node = nodes.get(layer * width + i);
+                // the first edge keeps every node of the next layer reached
+                graph.link(node, nodes.get((layer + 1) * width + i), 1);
+                for (int e = 1; e < edgesPerNode; e++) {
+                    graph.link(node, nodes.get((layer + 1) * width + random.nextInt(width)), 1);
+                }
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,238 @@
+package Graphs.main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Class definition for a loader building a Graph from its text representation, as
+ * given by Graph.toString(): one line for each Node, holding the Node's data followed
+ * by ' > ' and the space-separated labels of its neighbors. E.g.:
+ * <pre>
+ * A : first > B C
+ * B : second > C
+ * C : third >
+ * </pre>
+ * The file is streamed through a FileChannel in a single pass, lines and tokens being
+ * split directly in the byte buffer. Labels are interned into int ids as they are read,
+ * the Edges being kept as pairs of ids until the whole file has been read:<br>
+ * - first, a Node is added for each line, in the order its label first appears in the file;<br>
+ * - then, each Edge is linked by resolving its two ids into Nodes by array indexing.
+ * <br>Edges leading to labels with no line of their own are ignored. Blank lines are skipped.
+ * <br>E.g.:<pre>Graph&lt;Integer&gt; g = new GraphLoader&lt;Integer&gt;(Integer::parseInt).load(path);</pre>
+ * @param <T> - reference type of Nodes contained in the loaded Graph.
+ * @see Graph#toString()
+ */
+public class GraphLoader<T extends Comparable<T>> {
+
+    /**
+     * Size of the buffer the file is read through. Lines longer than this grow the buffer.
+     */
+    private static final int _BUFFER_SIZE = 1 << 20;
+
+    // parser building the data of a Node from its text, before the ' > ' separator
+    private Function<String, T> _parser;
+
+    // interned labels, giving the int ids of the Nodes and of the Edges' targets
+    private LabelDictionary _labels;
+    // data of the Node declared for each id, or null for ids never declared
+    private Object[] _data;
+    // Edges, as pairs of ids: _from[i] --> _to[i]
+    private int[] _from;
+    private int[] _to;
+    private int _edgeCount;
+
+    // statistics of the last load
+    private long _lineCount;
+    private long _elapsedNanos;
+
+    /**
+     * Constructs a loader parsing the data of each Node with the given parser.
+     * @param parser - builds the data of a Node from its trimmed text, e.g. "A : first".
+     */
+    public GraphLoader(Function<String, T> parser) {
+        _parser = parser;
+    }
+
+    /**
+     * Loads the Graph described by the given text file.
+     * @param path - path of the text file.
+     * @return the Graph described by the file.
+     * @throws IOException if the file cannot be read.
+     * @throws RuntimeException if two lines declare Nodes with the same label.
+     */
+    public Graph<T> load(Path path) throws IOException {
+        long start = System.nanoTime();
+        _labels = new LabelDictionary();
+        _data = new Object[16];
+        _from = new int[16];
+        _to = new int[16];
+        _edgeCount = 0;
+        _lineCount = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            read(channel);
+        }
+        Graph<T> graph = build();
+        // release the working arrays, only the statistics are kept
+        _labels = null;
+        _data = null;
+        _from = null;
+        _to = null;
+        _elapsedNanos = System.nanoTime() - start;
+        return graph;
+    }
+
+    /**
+     * Streams the channel through the buffer, parsing each complete line.
+     * The incomplete line at the end of the buffer is moved to its start
+     * before the next read.
+     */
+    private void read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(_BUFFER_SIZE);
+        boolean eof = false;
+        while (!eof) {
+            eof = channel.read(buffer) < 0;
+            byte[] bytes = buffer.array();
+            int end = buffer.position();
+            int lineStart = 0;
+            for (int i = 0; i < end; i++) {
+                if (bytes[i] == '\n') {
+                    parseLine(bytes, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (eof) {
+                parseLine(bytes, lineStart, end);
+            } else if (lineStart == 0 && end == bytes.length) {
+                // a single line fills the whole buffer
+                ByteBuffer larger = ByteBuffer.allocate(2 * bytes.length);
+                larger.put(bytes, 0, end);
+                buffer = larger;
+            } else {
+                buffer.position(lineStart);
+                buffer.limit(end);
+                buffer.compact();
+            }
+        }
+    }
+
+    /**
+     * Parses the line held in bytes[start .. end-1]: the Node's data up to the first '>',
+     * then the whitespace-separated labels of its neighbors.
+     */
+    private void parseLine(byte[] bytes, int start, int end) {
+        start = skipWhitespace(bytes, start, end);
+        if (start == end) {
+            return;
+        }
+        _lineCount++;
+        int separator = start;
+        while (separator < end && bytes[separator] != '>') {
+            separator++;
+        }
+        int dataEnd = separator;
+        while (dataEnd > start && isWhitespace(bytes[dataEnd - 1])) {
+            dataEnd--;
+        }
+        String text = new String(bytes, start, dataEnd - start, StandardCharsets.UTF_8);
+        int from = _labels.intern(Node.getLabel(text));
+        if (from >= _data.length) {
+            _data = Arrays.copyOf(_data, Math.max(from + 1, 2 * _data.length));
+        }
+        if (_data[from] != null) {
+            throw new RuntimeException("Ambiguous graph!");
+        }
+        _data[from] = _parser.apply(text);
+
+        int i = skipWhitespace(bytes, separator + 1, end);
+        while (i < end) {
+            int tokenEnd = i;
+            while (tokenEnd < end && !isWhitespace(bytes[tokenEnd])) {
+                tokenEnd++;
+            }
+            int to = _labels.intern(new String(bytes, i, tokenEnd - i, StandardCharsets.UTF_8));
+            if (_edgeCount == _from.length) {
+                _from = Arrays.copyOf(_from, 2 * _edgeCount);
+                _to = Arrays.copyOf(_to, 2 * _edgeCount);
+            }
+            _from[_edgeCount] = from;
+            _to[_edgeCount] = to;
+            _edgeCount++;
+            i = skipWhitespace(bytes, tokenEnd, end);
+        }
+    }
+
+    /**
+     * Builds the Graph out of the parsed lines: all the Nodes first, in the order of
+     * their ids, then the Edges between declared Nodes.
+     */
+    @SuppressWarnings("unchecked")
+    private Graph<T> build() {
+        Graph<T> graph = new Graph<T>();
+        int count = _labels.size();
+        ArrayList<Node<T>> nodes = new ArrayList<Node<T>>(count);
+        for (int id = 0; id < count; id++) {
+            nodes.add((id < _data.length && _data[id] != null)
+                ? graph.insertNode((T)_data[id])
+                : null);
+        }
+        for (int e = 0; e < _edgeCount; e++) {
+            Node<T> fromNode = nodes.get(_from[e]);
+            Node<T> toNode = nodes.get(_to[e]);
+            if (toNode != null) {
+                graph.link(fromNode, toNode, 1);
+            }
+        }
+        return graph;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int i, int end) {
+        while (i < end && isWhitespace(bytes[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f' || b == 0x0B;
+    }
+
+    /**
+     * Gets the number of (non-blank) lines read by the last load.
+     * @return number of lines.
+     */
+    public long getLineCount() {
+        return _lineCount;
+    }
+
+    /**
+     * Gets the time taken by the last load, from opening the file to returning the Graph.
+     * @return the duration of the load, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return _elapsedNanos;
+    }
+
+    /**
+     * Gets the throughput of the last load.
+     * @return number of lines loaded per second.
+     */
+    public double getLinesPerSecond() {
+        return (_elapsedNanos == 0) ? 0 : _lineCount * 1e9 / _elapsedNanos;
+    }
+
+    /**
+     * Gives a one-line report of the last load, e.g. "1000 lines in 12 ms (83333 lines/s)".
+     * @return the report of the last load.
+     */
+    public String getReport() {
+        return String.format("%d lines in %d ms (%.0f lines/s)",
+            _lineCount, _elapsedNanos / 1000000, getLinesPerSecond());
+    }
+}
@@ -0,0 +1,939 @@
+package Graphs.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class definition for an immutable, compact snapshot of a generic (Directed) Graph.
+ * The snapshot assigns each Node a dense int id, in the order in which the Graph
+ * iterates its Nodes, and stores the edges in Compressed Sparse Row (CSR) form:
+ * <pre>
+ * outgoing edges of node i: _targets[_offsets[i]] .. _targets[_offsets[i+1] - 1]
+ * incoming edges of node i: _inSources[_inOffsets[i]] .. _inSources[_inOffsets[i+1] - 1]
+ * </pre>
+ * The algorithms in this class run on these primitive arrays only, without
+ * touching the Node objects or their state. Changes made to the Graph after the
+ * snapshot was taken are not reflected in the snapshot.
+ * <br>Each query keeps its state in its own context (see Traversal), so any number
+ * of threads can query the same snapshot at once.
+ * @param <T> - reference type of Nodes contained in the Graph.
+ * @see Graph#snapshot()
+ */
+public class GraphSnapshot<T extends Comparable<T>> {
+
+    /**
+     * The data contained in each node, indexed by the node's id.
+     */
+    private ArrayList<T> _data;
+
+    /**
+     * Dictionary associating each node label with the node's id.
+     */
+    private LabelDictionary _ids;
+
+    /**
+     * Start index in _targets of the outgoing edges of each node.
+     * The array has size()+1 entries, the last one being the total number of edges.
+     */
+    private int[] _offsets;
+
+    /**
+     * Ids of the nodes targeted by the outgoing edges, grouped by their origin node.
+     */
+    private int[] _targets;
+
+    /**
+     * Weights of the outgoing edges, parallel to _targets.
+     */
+    private int[] _weights;
+
+    /**
+     * Start index in _inSources of the incoming edges of each node.
+     * The array has size()+1 entries, the last one being the total number of edges.
+     */
+    private int[] _inOffsets;
+
+    /**
+     * Ids of the nodes originating the incoming edges, grouped by their target node.
+     */
+    private int[] _inSources;
+
+    /**
+     * Pool of idle traversal contexts. Each query takes a context out of the pool
+     * (or creates a new one if the pool is empty) and puts it back when done, such
+     * that concurrent queries never share a context while their buffers are still
+     * reused from one query to the next.
+     * @see GraphSnapshot#acquire()
+     */
+    private Queue<Traversal> _contexts;
+
+    /**
+     * Reachability index of this snapshot, built on demand.
+     * @see GraphSnapshot#getReachabilityIndex()
+     */
+    private volatile ReachabilityIndex _reachability;
+
+    /**
+     * Constructs the snapshot of the given collection of nodes. Node ids are
+     * assigned in the iteration order of the collection. Edges leading to nodes
+     * outside of the collection are not expected.
+     * @param nodes - the nodes of the graph being captured.
+     */
+    GraphSnapshot(Collection<Node<T>> nodes) {
+        int n = nodes.size();
+        _data = new ArrayList<T>(n);
+        _ids = new LabelDictionary(n);
+        _contexts = new ConcurrentLinkedQueue<Traversal>();
+        // snapshot id of each node, indexed by the node's own id in its graph
+        int maxId = -1;
+        for (Node<T> node : nodes) {
+            maxId = Math.max(maxId, node.getId());
+        }
+        int[] snapshotIds = new int[maxId + 1];
+        for (Node<T> node : nodes) {
+            snapshotIds[node.getId()] = _ids.intern(node.getLabel());
+            _data.add(node.getData());
+        }
+
+        _offsets = new int[n + 1];
+        _inOffsets = new int[n + 1];
+        int i = 0;
+        for (Node<T> node : nodes) {
+            _offsets[i + 1] = _offsets[i] + node.getEdges().size();
+            _inOffsets[i + 1] = _inOffsets[i] + node.getInEdges().size();
+            i++;
+        }
+
+        _targets = new int[_offsets[n]];
+        _weights = new int[_offsets[n]];
+        _inSources = new int[_inOffsets[n]];
+        i = 0;
+        for (Node<T> node : nodes) {
+            int k = _offsets[i];
+            for (Node<T> other : node.getEdges()) {
+                _targets[k] = snapshotIds[other.getId()];
+                _weights[k] = node.getWeight(other);
+                k++;
+            }
+            k = _inOffsets[i];
+            for (Node<T> other : node.getInEdges()) {
+                _inSources[k++] = snapshotIds[other.getId()];
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Constructs a snapshot out of its data and its outgoing edges in CSR form, as saved
+     * in a graph file or assembled from the segments of a version of a VersionedGraph.
+     * The incoming edges are derived from the outgoing ones.
+     * @param data - the data contained in each node, indexed by id.
+     * @param offsets - start index in targets of the outgoing edges of each node.
+     * @param targets - ids of the nodes targeted by the outgoing edges.
+     * @param weights - weights of the outgoing edges, parallel to targets.
+     * @throws RuntimeException if two nodes have the same label.
+     * @see GraphFile#loadSnapshot(java.nio.file.Path, java.util.function.Function)
+     * @see VersionedGraph.Version#getSnapshot()
+     */
+    GraphSnapshot(ArrayList<T> data, int[] offsets, int[] targets, int[] weights) {
+        int n = data.size();
+        _data = data;
+        _ids = new LabelDictionary(n);
+        _contexts = new ConcurrentLinkedQueue<Traversal>();
+        for (T item : data) {
+            if (_ids.intern(Node.getLabel(item)) != _ids.size() - 1) {
+                throw new RuntimeException("Ambiguous graph!");
+            }
+        }
+        _offsets = offsets;
+        _targets = targets;
+        _weights = weights;
+
+        // counting sort of the edges by their target node
+        _inOffsets = new int[n + 1];
+        for (int v : targets) {
+            _inOffsets[v + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            _inOffsets[v + 1] += _inOffsets[v];
+        }
+        _inSources = new int[targets.length];
+        int[] fill = Arrays.copyOf(_inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                _inSources[fill[targets[k]]++] = u;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of nodes in this snapshot.
+     * @return number of nodes.
+     */
+    public int size() {
+        return _data.size();
+    }
+
+    /**
+     * Gets the number of (directed) edges in this snapshot.
+     * @return number of edges.
+     */
+    public int edgeCount() {
+        return _targets.length;
+    }
+
+    /**
+     * Gets the id of the node identified by the given key. The key can be either
+     * a data instance or the label (string) of the node.
+     * @param key - node data or label.
+     * @return the node id, or -1 if there is no such node in the snapshot.
+     */
+    public int getId(Object key) {
+        return _ids.getId(Node.getLabel(key));
+    }
+
+    /**
+     * Gets the data contained in the node with the given id.
+     * @param id - the node id.
+     * @return the data in the node.
+     */
+    public T getData(int id) {
+        return _data.get(id);
+    }
+
+    /**
+     * Gets the out-degree (number of outgoing edges) of the node with the given id.
+     * @param id - the node id.
+     * @return the out-degree of the node.
+     */
+    public int getOutDegree(int id) {
+        return _offsets[id + 1] - _offsets[id];
+    }
+
+    /**
+     * Gets the in-degree (number of incoming edges) of the node with the given id.
+     * @param id - the node id.
+     * @return the in-degree of the node.
+     */
+    public int getInDegree(int id) {
+        return _inOffsets[id + 1] - _inOffsets[id];
+    }
+
+    int[] getOffsets() {
+        return _offsets;
+    }
+
+    int[] getTargets() {
+        return _targets;
+    }
+
+    int[] getWeights() {
+        return _weights;
+    }
+
+    int[] getInOffsets() {
+        return _inOffsets;
+    }
+
+    int[] getInSources() {
+        return _inSources;
+    }
+
+    /**
+     * Generates the dense adjacency matrix of this snapshot: entry [i][j] is 1 if an
+     * edge leads from node i to node j, 0 otherwise. It takes O(V&sup2;) memory, the
+     * bit and sparse matrices are better fit for large graphs.
+     * @return the adjacency matrix, indexed by node ids.
+     * @see GraphSnapshot#getBitMatrix()
+     * @see GraphSnapshot#getSparseMatrix()
+     */
+    public int[][] getAdjacencyMatrix() {
+        int[][] matrix = new int[size()][size()];
+        for (int u = 0; u < size(); u++) {
+            for (int k = _offsets[u]; k < _offsets[u + 1]; k++) {
+                matrix[u][_targets[k]] = 1;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Generates the adjacency matrix of this snapshot as a bit matrix: entry (i, j)
+     * is true if an edge leads from node i to node j. It takes V&sup2;/8 bytes.
+     * @return the adjacency bit matrix, indexed by node ids.
+     * @see BitMatrix
+     */
+    public BitMatrix getBitMatrix() {
+        BitMatrix matrix = new BitMatrix(size());
+        for (int u = 0; u < size(); u++) {
+            for (int k = _offsets[u]; k < _offsets[u + 1]; k++) {
+                matrix.set(u, _targets[k]);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Generates the adjacency matrix of this snapshot as a sparse matrix: entry (i, j)
+     * holds the weight of the edge leading from node i to node j, if there is one.
+     * It takes O(V+E) memory.
+     * @return the sparse adjacency matrix, indexed by node ids.
+     * @see SparseMatrix
+     */
+    public SparseMatrix getSparseMatrix() {
+        return new SparseMatrix(_offsets.clone(), _targets.clone(), _weights.clone());
+    }
+
+    /**
+     * Gets the reachability index of this snapshot, building it on first use.
+     * The index answers repeated path queries in (nearly) constant time.
+     * @return the reachability index.
+     * @see ReachabilityIndex
+     */
+    public ReachabilityIndex getReachabilityIndex() {
+        ReachabilityIndex reachability = _reachability;
+        if (reachability == null) {
+            synchronized (this) {
+                reachability = _reachability;
+                if (reachability == null) {
+                    reachability = new ReachabilityIndex(this);
+                    _reachability = reachability;
+                }
+            }
+        }
+        return reachability;
+    }
+
+    /**
+     * Gets a traversal context for a new query, with all nodes not visited.
+     * The context needs to be given back through release() when the query is done.
+     * @return the traversal context owned by the query.
+     */
+    private Traversal acquire() {
+        Traversal traversal = _contexts.poll();
+        if (traversal == null) {
+            traversal = new Traversal(this);
+        }
+        traversal.clear();
+        return traversal;
+    }
+
+    /**
+     * Gives back the traversal context of a completed query, to be reused.
+     * @param traversal - the traversal context owned by the query.
+     */
+    private void release(Traversal traversal) {
+        _contexts.add(traversal);
+    }
+
+    /**
+     * Gets the id of the node with the given key, throwing if there is no such node.
+     */
+    private int getExistingId(Object key) {
+        int id = getId(key);
+        if (id < 0) {
+            throw new RuntimeException("Node(s) not in the graph!");
+        }
+        return id;
+    }
+
+    /**
+     * Groups the data of all nodes by an int value computed for each of them.
+     * @param values - the value of each node, indexed by node id.
+     * @return map associating each value (key) with the set of nodes having it (value).
+     */
+    private TreeMap<Integer, TreeSet<T>> groupBy(int[] values) {
+        TreeMap<Integer, TreeSet<T>> map = new TreeMap<Integer, TreeSet<T>>();
+        for (int id = 0; id < values.length; id++) {
+            TreeSet<T> set = map.get(values[id]);
+            if (set == null) {
+                set = new TreeSet<T>();
+                map.put(values[id], set);
+            }
+            set.add(_data.get(id));
+        }
+        return map;
+    }
+
+    /**
+     * Labels each node with the index of its weakly connected component, that is
+     * the set of nodes linked to each other by edges followed in either direction.
+     * @param component - array receiving the component index (starting at 0) of each node.
+     * @return the number of weakly connected components.
+     */
+    private int weakComponents(int[] component) {
+        Traversal traversal = acquire();
+        int count = 0;
+        for (int root = 0; root < size(); root++) {
+            if (!traversal.isVisited(root)) {
+                int index = count++;
+                traversal.breadthFirst(root, true, id -> {
+                    component[id] = index;
+                    return true;
+                });
+            }
+        }
+        release(traversal);
+        return count;
+    }
+
+    /**
+     * Labels each node with the index of its strongly connected component, that is
+     * the maximal set of nodes where each node can be reached from any other node.
+     * The components are found by an iterative Tarjan pass, in O(V+E), and are numbered
+     * in reverse topological order: an edge linking two different components always
+     * leads from a higher index to a lower index.
+     * @param component - array receiving the component index (starting at 0) of each node.
+     * @return the number of strongly connected components.
+     */
+    private int strongComponents(int[] component) {
+        int n = size();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] sccStack = new int[n];
+        int callTop = 0;
+        int sccTop = 0;
+        int counter = 0;
+        int count = 0;
+        Arrays.fill(index, -1);
+        Arrays.fill(component, -1);
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            index[root] = low[root] = counter++;
+            cursor[root] = _offsets[root];
+            sccStack[sccTop++] = root;
+            callStack[callTop++] = root;
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+                if (cursor[u] < _offsets[u + 1]) {
+                    // follow the next edge of u
+                    int v = _targets[cursor[u]++];
+                    if (index[v] < 0) {
+                        index[v] = low[v] = counter++;
+                        cursor[v] = _offsets[v];
+                        sccStack[sccTop++] = v;
+                        callStack[callTop++] = v;
+                    } else if (component[v] < 0) {
+                        // v is still on the scc stack
+                        low[u] = Math.min(low[u], index[v]);
+                    }
+                    continue;
+                }
+                // all edges of u were followed: if u is the root of a component, pop it
+                callTop--;
+                if (low[u] == index[u]) {
+                    int v;
+                    do {
+                        v = sccStack[--sccTop];
+                        component[v] = count;
+                    } while (v != u);
+                    count++;
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the index of the weakly connected component (partition) of each node.
+     * @return array with the component index of each node, indexed by node id.
+     */
+    public int[] getWeakComponentIds() {
+        int[] component = new int[size()];
+        weakComponents(component);
+        return component;
+    }
+
+    /**
+     * Gets the index of the strongly connected component of each node. The components
+     * are numbered in reverse topological order: an edge linking two different components
+     * always leads from a higher index to a lower index.
+     * @return array with the component index of each node, indexed by node id.
+     */
+    public int[] getStrongComponentIds() {
+        int[] component = new int[size()];
+        strongComponents(component);
+        return component;
+    }
+
+    /**
+     * Generates a map grouping all nodes in the graph by their strongly connected component.
+     * @return a map associating the index of each strongly connected component (key)
+     * with the set of nodes in that component (value).
+     * @see Graph#getStronglyConnectedComponents()
+     */
+    public TreeMap<Integer, TreeSet<T>> getStronglyConnectedComponents() {
+        return groupBy(getStrongComponentIds());
+    }
+
+    /**
+     * Checks if the graph is strongly connected: each node can be reached from any other node.
+     * @return true if the graph is strongly connected, false otherwise.
+     */
+    public boolean isStronglyConnected() {
+        return strongComponents(new int[size()]) <= 1;
+    }
+
+    /**
+     * Checks if the graph is eulerian: it is strongly connected and each node
+     * has as many incoming as outgoing edges.
+     * @return true if graph is eulerian, false otherwise.
+     * @see Graph#isEulerian()
+     */
+    public boolean isEulerian() {
+        for (int id = 0; id < size(); id++) {
+            if (getInDegree(id) != getOutDegree(id)) {
+                return false;
+            }
+        }
+        return isStronglyConnected();
+    }
+
+    /**
+     * Checks if the graph is connected, that is if all its nodes are linked to each other
+     * by edges followed in either direction. A graph with zero or one nodes is connected.
+     * @return true if the graph is connected, false otherwise.
+     * @see Graph#isConnected()
+     */
+    public boolean isConnected() {
+        return weakComponents(new int[size()]) <= 1;
+    }
+
+    /**
+     * Generates the count of the partitions in the graph.
+     * @return count of partitions.
+     * @see Graph#countPartitions()
+     */
+    public int countPartitions() {
+        return weakComponents(new int[size()]);
+    }
+
+    /**
+     * Generates a map grouping all nodes in the graph by their out-degree.
+     * @return a map where each out-degree value in the graph (key) is associated
+     * with the set of nodes (value) having that out-degree.
+     * @see Graph#getOutDegrees()
+     */
+    public TreeMap<Integer, TreeSet<T>> getOutDegrees() {
+        int[] degrees = new int[size()];
+        for (int id = 0; id < degrees.length; id++) {
+            degrees[id] = getOutDegree(id);
+        }
+        return groupBy(degrees);
+    }
+
+    /**
+     * Generates a map grouping all nodes in the graph by their in-degree.
+     * @return a map where each in-degree value in the graph (key) is associated
+     * with the set of nodes (value) having that in-degree.
+     * @see Graph#getInDegrees()
+     */
+    public TreeMap<Integer, TreeSet<T>> getInDegrees() {
+        int[] degrees = new int[size()];
+        for (int id = 0; id < degrees.length; id++) {
+            degrees[id] = getInDegree(id);
+        }
+        return groupBy(degrees);
+    }
+
+    /**
+     * Generates the topological sort of the graph, where all nodes are grouped by their
+     * index in topological order. The index of a node is the length of the longest path
+     * leading to it, such that nodes with no incoming edges have index 0.
+     * @return a map associating each position in the topological sort (key)
+     * with the set of Nodes at that position (value). If the graph is not DAG, the method
+     * returns null.
+     * @see Graph#topoSort()
+     */
+    public TreeMap<Integer, TreeSet<T>> topoSort() {
+        int n = size();
+        int[] inDegree = new int[n];
+        int[] level = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int id = 0; id < n; id++) {
+            inDegree[id] = getInDegree(id);
+            if (inDegree[id] == 0) {
+                queue[tail++] = id;
+            }
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int k = _offsets[u]; k < _offsets[u + 1]; k++) {
+                int v = _targets[k];
+                level[v] = Math.max(level[v], level[u] + 1);
+                if (--inDegree[v] == 0) {
+                    queue[tail++] = v;
+                }
+            }
+        }
+        // nodes left with incoming edges are part of, or reachable from, a cycle
+        return (tail == n) ? groupBy(level) : null;
+    }
+
+    /**
+     * Runs the Dijkstra algorithm from the source node: nodes are settled in the order of
+     * their distance, taken from an indexed min-heap, and each settled node relaxes its
+     * outgoing edges exactly once. Runs in O((V+E) log V).
+     * @param source - id of the source node.
+     * @param distance - array receiving the distance to each node, or -1 if not reachable.
+     * @param previous - array receiving the id of the previous node on the shortest path
+     * to each node, or -1 if not reachable. The source is its own previous node.
+     */
+    private void dijkstra(int source, long[] distance, int[] previous) {
+        Arrays.fill(distance, Long.MAX_VALUE);
+        Arrays.fill(previous, -1);
+        boolean[] settled = new boolean[size()];
+        IntMinHeap heap = new IntMinHeap(size(), distance);
+        distance[source] = 0;
+        previous[source] = source;
+        heap.addOrDecrease(source);
+        while (!heap.isEmpty()) {
+            int u = heap.remove();
+            settled[u] = true;
+            for (int k = _offsets[u]; k < _offsets[u + 1]; k++) {
+                int v = _targets[k];
+                long d = distance[u] + _weights[k];
+                if (!settled[v] && d < distance[v]) {
+                    distance[v] = d;
+                    previous[v] = u;
+                    heap.addOrDecrease(v);
+                }
+            }
+        }
+        for (int id = 0; id < distance.length; id++) {
+            if (distance[id] == Long.MAX_VALUE) {
+                distance[id] = -1;
+            }
+        }
+    }
+
+    /**
+     * Generates the Dijkstra distances between the node containing fromData and all the
+     * other nodes in the graph. The distance between two nodes is the smallest sum of the
+     * weights of the edges on a path linking them.
+     * @param fromData - data in the source node.
+     * @return a map where the key is each Node in the Graph (given by its data)
+     * and the value is the Dijkstra distance from the <i>source</i> Node to that node,
+     * or -1 if the node cannot be reached. If the source node is not in the graph,
+     * the method returns null.
+     * @throws ArithmeticException if a distance does not fit in an int. The distances are
+     * summed as longs, such that a long path is reported instead of wrapping around.
+     * @see Graph#dijkstra(Comparable)
+     */
+    public TreeMap<T, Integer> dijkstra(T fromData) {
+        int source = getId(fromData);
+        if (source < 0) {
+            return null;
+        }
+        long[] distance = new long[size()];
+        dijkstra(source, distance, new int[size()]);
+        TreeMap<T, Integer> distances = new TreeMap<T, Integer>();
+        for (int id = 0; id < distance.length; id++) {
+            distances.put(_data.get(id), Math.toIntExact(distance[id]));
+        }
+        return distances;
+    }
+
+    /**
+     * Generates the breadth-first distances between the node containing fromData and all
+     * the other nodes in the graph: the number of edges on the shortest path linking them,
+     * regardless of the edges' weights. On graphs where all weights are 1 (the default),
+     * these are the Dijkstra distances. The search runs level by level on the common
+     * ForkJoinPool.
+     * @param fromData - data in the source node.
+     * @return a map where the key is each Node in the Graph (given by its data)
+     * and the value is the number of edges from the <i>source</i> Node to that node,
+     * or -1 if the node cannot be reached. If the source node is not in the graph,
+     * the method returns null.
+     * @see GraphSnapshot#breadthFirstDistances(Comparable, ForkJoinPool)
+     */
+    public TreeMap<T, Integer> breadthFirstDistances(T fromData) {
+        return breadthFirstDistances(fromData, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generates the breadth-first distances between the node containing fromData and all
+     * the other nodes in the graph, running the search on the given pool.
+     * @param fromData - data in the source node.
+     * @param pool - the pool running the parallel search.
+     * @return a map where the key is each Node in the Graph (given by its data)
+     * and the value is the number of edges from the <i>source</i> Node to that node,
+     * or -1 if the node cannot be reached. If the source node is not in the graph,
+     * the method returns null.
+     * @see ParallelBreadthFirst
+     */
+    public TreeMap<T, Integer> breadthFirstDistances(T fromData, ForkJoinPool pool) {
+        int source = getId(fromData);
+        if (source < 0) {
+            return null;
+        }
+        int[] distance = new ParallelBreadthFirst(this, pool).distances(source);
+        TreeMap<T, Integer> distances = new TreeMap<T, Integer>();
+        for (int id = 0; id < distance.length; id++) {
+            distances.put(_data.get(id), distance[id]);
+        }
+        return distances;
+    }
+
+    /**
+     * Callback receiving the rows of a distance matrix, one for each source node.
+     * @see GraphSnapshot#forEachDistanceRow(int[], ForkJoinPool, DistanceRowConsumer)
+     */
+    public interface DistanceRowConsumer {
+        /**
+         * Called once for each source, as soon as its distances are computed. Rows of
+         * different sources may be delivered from several threads at once.
+         * @param source - id of the source node.
+         * @param distances - the distance from the source to each node (indexed by id),
+         * or -1 for the nodes which cannot be reached. The array is reused for the next
+         * rows once the call returns: it needs to be copied to be kept.
+         */
+        void accept(int source, int[] distances);
+    }
+
+    /**
+     * Computes the shortest distances from each of the given source nodes, running the
+     * single-source searches in parallel on the given pool, and streams each row to the
+     * consumer. The distances are the Dijkstra distances, computed by breadth-first searches
+     * when all the edges have weight 1.
+     * @param sources - ids of the source nodes.
+     * @param pool - the pool running the searches.
+     * @param consumer - callback receiving the row of distances of each source.
+     * @throws ArithmeticException if a weighted distance does not fit in an int.
+     * @see MultiSourceDistances
+     */
+    public void forEachDistanceRow(int[] sources, ForkJoinPool pool, DistanceRowConsumer consumer) {
+        new MultiSourceDistances(this).run(sources, pool, consumer);
+    }
+
+    /**
+     * Computes the shortest distances from every node, on the common ForkJoinPool,
+     * and streams each row to the consumer.
+     * @param consumer - callback receiving the row of distances of each node.
+     * @see GraphSnapshot#forEachDistanceRow(int[], ForkJoinPool, DistanceRowConsumer)
+     */
+    public void forEachDistanceRow(DistanceRowConsumer consumer) {
+        int[] sources = new int[size()];
+        for (int id = 0; id < sources.length; id++) {
+            sources[id] = id;
+        }
+        forEachDistanceRow(sources, ForkJoinPool.commonPool(), consumer);
+    }
+
+    /**
+     * Computes the eccentricity and the closeness of every node, in one pass over the
+     * rows of the distance matrix.
+     * @param eccentricity - array receiving the eccentricity of each node.
+     * @param closeness - array receiving the closeness centrality of each node.
+     */
+    private void distanceSummaries(int[] eccentricity, double[] closeness) {
+        forEachDistanceRow((source, distances) -> {
+            int max = 0;
+            long sum = 0;
+            int reached = 0;
+            for (int id = 0; id < distances.length; id++) {
+                // nodes reached over edges of weight 0 count, at distance 0
+                int d = distances[id];
+                if (d >= 0 && id != source) {
+                    max = Math.max(max, d);
+                    sum += d;
+                    reached++;
+                }
+            }
+            eccentricity[source] = max;
+            if (reached == 0) {
+                closeness[source] = 0;
+            } else {
+                closeness[source] = (sum == 0) ? Double.POSITIVE_INFINITY : (double)reached / sum;
+            }
+        });
+    }
+
+    /**
+     * Generates the eccentricity of each node: the largest distance from the node
+     * to any node it can reach.
+     * @return a map associating each node's data (key) with its eccentricity (value).
+     * @see Graph#getEccentricities()
+     */
+    public TreeMap<T, Integer> getEccentricities() {
+        int[] eccentricity = new int[size()];
+        distanceSummaries(eccentricity, new double[size()]);
+        TreeMap<T, Integer> map = new TreeMap<T, Integer>();
+        for (int id = 0; id < size(); id++) {
+            map.put(_data.get(id), eccentricity[id]);
+        }
+        return map;
+    }
+
+    /**
+     * Gets the diameter of the graph: the largest distance between two nodes
+     * such that the second one can be reached from the first one.
+     * @return the diameter, or 0 if no node reaches any other node.
+     * @see Graph#getDiameter()
+     */
+    public int getDiameter() {
+        int[] eccentricity = new int[size()];
+        distanceSummaries(eccentricity, new double[size()]);
+        int diameter = 0;
+        for (int e : eccentricity) {
+            diameter = Math.max(diameter, e);
+        }
+        return diameter;
+    }
+
+    /**
+     * Generates the closeness centrality of each node: the number of other nodes it reaches
+     * divided by the sum of the distances to them, that is the inverse of the average
+     * distance to the nodes it reaches. A node reaching no other node has closeness 0, and a
+     * node reaching other nodes at distance 0 only (over edges of weight 0) has an infinite
+     * closeness.
+     * @return a map associating each node's data (key) with its closeness (value).
+     * @see Graph#getClosenessCentralities()
+     */
+    public TreeMap<T, Double> getClosenessCentralities() {
+        double[] closeness = new double[size()];
+        distanceSummaries(new int[size()], closeness);
+        TreeMap<T, Double> map = new TreeMap<T, Double>();
+        for (int id = 0; id < size(); id++) {
+            map.put(_data.get(id), closeness[id]);
+        }
+        return map;
+    }
+
+    /**
+     * Generates the tree of the shortest paths starting in the node containing fromData.
+     * @param fromData - data in the source node.
+     * @return a map where the key is each node reachable from the <i>source</i> node
+     * (given by its data) and the value is the previous node on the shortest path
+     * leading to it. The source node is mapped to itself. If the source node is not
+     * in the graph, the method returns null.
+     * @see Graph#dijkstraTree(Comparable)
+     */
+    public TreeMap<T, T> dijkstraTree(T fromData) {
+        int source = getId(fromData);
+        if (source < 0) {
+            return null;
+        }
+        int[] previous = new int[size()];
+        dijkstra(source, new long[size()], previous);
+        TreeMap<T, T> tree = new TreeMap<T, T>();
+        for (int id = 0; id < previous.length; id++) {
+            if (previous[id] >= 0) {
+                tree.put(_data.get(id), _data.get(previous[id]));
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Determines if a path exists between the nodes containing fromData and toData.
+     * @param fromData - data value of the origin node.
+     * @param toData - data value of the target node.
+     * @return true if a path exists, false otherwise
+     * @throws RuntimeException if a node cannot be found in the graph.
+     * @see Graph#hasPath(Comparable, Comparable)
+     */
+    public boolean hasPath(T fromData, T toData) {
+        int source = getExistingId(fromData);
+        int target = getExistingId(toData);
+        Traversal traversal = acquire();
+        // the traversal is stopped (returns false) only if it reached the target
+        boolean found = !traversal.depthFirst(source, id -> id != target);
+        release(traversal);
+        return found;
+    }
+
+    /**
+     * Determines a cycle in the graph, starting and ending at the node containing given data.
+     * @param data - data in the starting and ending node of the cycle.
+     * @return the list of nodes' data along the cycle, excluding the starting node and with
+     * the ending node at the last index, or null if there is no such cycle.
+     * @throws RuntimeException if the node cannot be found in the graph.
+     * @see Graph#getCycle(Comparable)
+     */
+    public ArrayList<T> getCycle(T data) {
+        int id = getExistingId(data);
+        Traversal traversal = acquire();
+        int[] path = traversal.getPath(id, id);
+        release(traversal);
+        if (path == null) {
+            return null;
+        }
+        ArrayList<T> cycle = new ArrayList<T>(path.length);
+        for (int n : path) {
+            cycle.add(_data.get(n));
+        }
+        return cycle;
+    }
+
+    /**
+     * Determines an eulerian circuit in the graph: a path traversing all edges exactly once
+     * and ending in the node where it started. The circuit starts with a closed walk from the
+     * first node, following the next unused edge of each node (its edge cursor) until returning
+     * to the start. Then each node along the circuit, in order, with unused edges left, starts
+     * a closed walk of its own which is spliced in right after it. The circuit is kept as an
+     * int-indexed linked list, such that each splice is O(1) and the whole circuit is O(V+E).
+     * @return array list of nodes' data, in the order of the circuit, or null if the graph
+     * is not eulerian.
+     * @see Graph#getEulerianCircuit()
+     */
+    public ArrayList<T> getEulerianCircuit() {
+        if (!isEulerian()) {
+            return null;
+        }
+        ArrayList<T> circuit = new ArrayList<T>(edgeCount() + 1);
+        if (size() == 0) {
+            return circuit;
+        }
+
+        // next unused edge of each node
+        int[] cursor = Arrays.copyOf(_offsets, size());
+        // the circuit as a linked list of positions: node at each position and next position
+        int[] node = new int[edgeCount() + 1];
+        int[] next = new int[edgeCount() + 1];
+        int positions = 0;
+        node[positions] = 0;
+        next[positions] = -1;
+        positions++;
+
+        for (int p = 0; p != -1; p = next[p]) {
+            int start = node[p];
+            if (cursor[start] == _offsets[start + 1]) {
+                continue;
+            }
+            // walk from start until returning to it. In an eulerian graph the walk can
+            // only get stuck in the start node, so it never needs to backtrack.
+            int last = p;
+            int after = next[p];
+            int u = start;
+            do {
+                u = _targets[cursor[u]++];
+                node[positions] = u;
+                next[last] = positions;
+                last = positions++;
+            } while (u != start);
+            next[last] = after;
+        }
+
+        for (int p = 0; p != -1; p = next[p]) {
+            circuit.add(_data.get(node[p]));
+        }
+        return circuit;
+    }
+}
@@ -0,0 +1,120 @@
+package Graphs.main;
+
+import java.util.Arrays;
+
+/**
+ * Class definition for an indexed binary min-heap of int node ids, ordered by
+ * a key array owned by the caller (e.g. the tentative distance of each node).
+ * The heap tracks the slot of each id, such that the key of an id already in
+ * the heap can be lowered in O(log n) without adding the id a second time.
+ * <br><u>Note:</u> The caller is expected to call addOrDecrease() right after
+ * lowering a key in the key array, for as long as the id is in the heap.
+ */
+class IntMinHeap {
+    // the ids in the heap, with the root at index 0
+    private int[] _heap;
+    // the slot in _heap of each id, or -1 if the id is not in the heap
+    private int[] _slot;
+    // the keys ordering the ids, indexed by id
+    private long[] _keys;
+    // number of ids in the heap
+    private int _size;
+
+    /**
+     * Constructs an empty heap fit for ids in the range [0, capacity).
+     * @param capacity - the number of distinct ids.
+     * @param keys - the keys ordering the ids, indexed by id.
+     */
+    IntMinHeap(int capacity, long[] keys) {
+        _heap = new int[capacity];
+        _slot = new int[capacity];
+        Arrays.fill(_slot, -1);
+        _keys = keys;
+        _size = 0;
+    }
+
+    boolean isEmpty() {
+        return _size == 0;
+    }
+
+    int size() {
+        return _size;
+    }
+
+    boolean contains(int id) {
+        return _slot[id] >= 0;
+    }
+
+    /**
+     * Removes all ids from the heap, in O(size).
+     */
+    void clear() {
+        for (int i = 0; i < _size; i++) {
+            _slot[_heap[i]] = -1;
+        }
+        _size = 0;
+    }
+
+    /**
+     * Adds the id to the heap if not already there, otherwise moves it up
+     * according to its (lowered) key.
+     * @param id - the id to be added or updated.
+     */
+    void addOrDecrease(int id) {
+        if (_slot[id] < 0) {
+            _heap[_size] = id;
+            _slot[id] = _size;
+            _size++;
+        }
+        siftUp(_slot[id]);
+    }
+
+    /**
+     * Removes and returns the id having the smallest key.
+     * @return the id with the smallest key.
+     */
+    int remove() {
+        int id = _heap[0];
+        _slot[id] = -1;
+        _size--;
+        if (_size > 0) {
+            _heap[0] = _heap[_size];
+            _slot[_heap[0]] = 0;
+            siftDown(0);
+        }
+        return id;
+    }
+
+    private void siftUp(int i) {
+        int id = _heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (_keys[_heap[parent]] <= _keys[id]) {
+                break;
+            }
+            _heap[i] = _heap[parent];
+            _slot[_heap[i]] = i;
+            i = parent;
+        }
+        _heap[i] = id;
+        _slot[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = _heap[i];
+        while (2 * i + 1 < _size) {
+            int child = 2 * i + 1;
+            if (child + 1 < _size && _keys[_heap[child + 1]] < _keys[_heap[child]]) {
+                child++;
+            }
+            if (_keys[id] <= _keys[_heap[child]]) {
+                break;
+            }
+            _heap[i] = _heap[child];
+            _slot[_heap[i]] = i;
+            i = child;
+        }
+        _heap[i] = id;
+        _slot[id] = i;
+    }
+}
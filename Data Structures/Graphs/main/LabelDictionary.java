@@ -0,0 +1,127 @@
+package Graphs.main;
+
+import java.util.Arrays;
+
+/**
+ * Class definition for a dictionary interning Node labels into dense int ids.
+ * The first label interned gets id 0, the next new one id 1, and so on; interning
+ * a label again returns the id it got the first time.
+ * <br>Labels are stored in an open-addressing hash table (linear probing) of parallel
+ * String and int arrays, such that looking up an id neither boxes an Integer nor
+ * allocates a map entry, and the label of an id is found by indexing an array.
+ * <br>Ids are never taken back: a label keeps its id for the lifetime of the dictionary.
+ */
+class LabelDictionary {
+    // hash table slots: the label in each slot, or null for empty slots
+    private String[] _table;
+    // the id of the label in each slot of the table
+    private int[] _tableIds;
+    // the label of each id
+    private String[] _labels;
+    // number of labels interned
+    private int _size;
+
+    /**
+     * Constructs an empty dictionary.
+     */
+    LabelDictionary() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty dictionary sized for the given number of labels.
+     * @param capacity - the number of labels expected.
+     */
+    LabelDictionary(int capacity) {
+        int slots = 16;
+        while (slots < 2 * capacity) {
+            slots *= 2;
+        }
+        _table = new String[slots];
+        _tableIds = new int[slots];
+        _labels = new String[Math.max(capacity, 16)];
+        _size = 0;
+    }
+
+    /**
+     * Gets the number of labels interned.
+     * @return number of labels, also the id the next new label will get.
+     */
+    int size() {
+        return _size;
+    }
+
+    /**
+     * Gets the id of the given label.
+     * @param label - the label to look up.
+     * @return the id of the label, or -1 if it was never interned.
+     */
+    int getId(String label) {
+        int mask = _table.length - 1;
+        for (int slot = hash(label) & mask; _table[slot] != null; slot = (slot + 1) & mask) {
+            if (_table[slot].equals(label)) {
+                return _tableIds[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the label having the given id.
+     * @param id - an id returned by intern().
+     * @return the label of the id.
+     */
+    String getLabel(int id) {
+        return _labels[id];
+    }
+
+    /**
+     * Gets the id of the given label, giving it the next id if it is new.
+     * @param label - the label to be interned.
+     * @return the id of the label.
+     */
+    int intern(String label) {
+        int mask = _table.length - 1;
+        int slot = hash(label) & mask;
+        while (_table[slot] != null) {
+            if (_table[slot].equals(label)) {
+                return _tableIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (_size == _labels.length) {
+            _labels = Arrays.copyOf(_labels, 2 * _size);
+        }
+        int id = _size++;
+        _labels[id] = label;
+        _table[slot] = label;
+        _tableIds[slot] = id;
+        // keep the table at most half full, such that probe sequences stay short
+        if (2 * _size > _table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        _table = new String[2 * _table.length];
+        _tableIds = new int[_table.length];
+        int mask = _table.length - 1;
+        for (int id = 0; id < _size; id++) {
+            int slot = hash(_labels[id]) & mask;
+            while (_table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            _table[slot] = _labels[id];
+            _tableIds[slot] = id;
+        }
+    }
+
+    /**
+     * Spreads the bits of the String hash code, since the table index keeps only the low ones.
+     */
+    private static int hash(String label) {
+        int h = label.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
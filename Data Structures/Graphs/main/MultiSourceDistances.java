@@ -0,0 +1,140 @@
+package Graphs.main;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class definition for the computation of the shortest distances from many source nodes
+ * of a GraphSnapshot, one row of the distance matrix for each source.
+ * <br>The sources are split among the tasks of a ForkJoinPool, each task running
+ * independent single-source searches: a breadth-first search if all the edges have
+ * weight 1, a Dijkstra search otherwise. The arrays a search works on are allocated
+ * once per worker and reused by all the searches of that worker, and each row is handed
+ * to a callback as soon as it is complete, such that the whole V&times;V matrix is never
+ * held in memory.
+ * @see GraphSnapshot#forEachDistanceRow(int[], ForkJoinPool, GraphSnapshot.DistanceRowConsumer)
+ */
+class MultiSourceDistances {
+
+    // CSR arrays of the snapshot being searched
+    private int[] _offsets;
+    private int[] _targets;
+    private int[] _weights;
+    private int _size;
+    // true if all the edges have weight 1
+    private boolean _unitWeights;
+
+    // idle scratch arrays, at most one set per worker of the pool
+    private Queue<Scratch> _scratches;
+
+    /**
+     * Arrays used by one single-source search, reused from one search to the next.
+     */
+    private static class Scratch {
+        private long[] _distance;
+        private int[] _row;
+        private boolean[] _settled;
+        private int[] _queue;
+        private IntMinHeap _heap;
+
+        private Scratch(int size) {
+            _distance = new long[size];
+            _row = new int[size];
+            _settled = new boolean[size];
+            _queue = new int[size];
+            _heap = new IntMinHeap(size, _distance);
+        }
+    }
+
+    /**
+     * Constructs the computation over the given snapshot.
+     * @param graph - the snapshot to be searched.
+     */
+    MultiSourceDistances(GraphSnapshot<?> graph) {
+        _offsets = graph.getOffsets();
+        _targets = graph.getTargets();
+        _weights = graph.getWeights();
+        _size = graph.size();
+        _unitWeights = true;
+        for (int weight : _weights) {
+            if (weight != 1) {
+                _unitWeights = false;
+                break;
+            }
+        }
+        _scratches = new ConcurrentLinkedQueue<Scratch>();
+    }
+
+    /**
+     * Computes the distances from each of the sources, on the given pool.
+     * @param sources - ids of the source nodes.
+     * @param pool - the pool running the searches.
+     * @param consumer - callback receiving each row, possibly from several threads at once.
+     */
+    void run(int[] sources, ForkJoinPool pool, GraphSnapshot.DistanceRowConsumer consumer) {
+        pool.invoke(new RangeTask(0, sources.length, 1, (from, to) -> {
+            Scratch scratch = _scratches.poll();
+            if (scratch == null) {
+                scratch = new Scratch(_size);
+            }
+            for (int i = from; i < to; i++) {
+                if (_unitWeights) {
+                    breadthFirst(sources[i], scratch);
+                } else {
+                    dijkstra(sources[i], scratch);
+                }
+                consumer.accept(sources[i], scratch._row);
+            }
+            _scratches.add(scratch);
+        }));
+    }
+
+    private void breadthFirst(int source, Scratch scratch) {
+        int[] row = scratch._row;
+        int[] queue = scratch._queue;
+        Arrays.fill(row, -1);
+        row[source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int k = _offsets[u]; k < _offsets[u + 1]; k++) {
+                int v = _targets[k];
+                if (row[v] < 0) {
+                    row[v] = row[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+    private void dijkstra(int source, Scratch scratch) {
+        long[] distance = scratch._distance;
+        boolean[] settled = scratch._settled;
+        IntMinHeap heap = scratch._heap;
+        Arrays.fill(distance, Long.MAX_VALUE);
+        Arrays.fill(settled, false);
+        heap.clear();
+        distance[source] = 0;
+        heap.addOrDecrease(source);
+        while (!heap.isEmpty()) {
+            int u = heap.remove();
+            settled[u] = true;
+            for (int k = _offsets[u]; k < _offsets[u + 1]; k++) {
+                int v = _targets[k];
+                long d = distance[u] + _weights[k];
+                if (!settled[v] && d < distance[v]) {
+                    distance[v] = d;
+                    heap.addOrDecrease(v);
+                }
+            }
+        }
+        int[] row = scratch._row;
+        for (int id = 0; id < _size; id++) {
+            row[id] = (distance[id] == Long.MAX_VALUE) ? -1 : Math.toIntExact(distance[id]);
+        }
+    }
+}
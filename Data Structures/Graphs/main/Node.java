@@ -1,11 +1,11 @@
 package Graphs.main;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
-import java.util.Queue;
 
 /**
  * Class definition for a generic Node in a Graph.
@@ -28,6 +28,12 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
      */
     private T _data;
 
+    /**
+     * The label of this Node, parsed once from its data when the Node is constructed.
+     * @see Node#getLabel(Object)
+     */
+    private String _label;
+
     /**
      * Collection of outgoing (egress) Edges originating in this Node.
      * <br>This is a private Map keying each of the neighboring Nodes by their label.
@@ -42,11 +48,12 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
     private Map<String, Node<T>> _inEdges;
 
     /**
-     * Queue of nodes which had not been reached from this node.
-     * Used as an internal state tracking for eulerian circuit.
+     * Weights of the outgoing (egress) edges originating in this Node.
+     * <br>This is a private Map keying the weight of each edge by the label
+     * of the neighboring Node it leads to.
      */
-    private Queue<Node<T>> _unvisited;
-    
+    private Map<String, Integer> _weights;
+
     /**
      * State metadata contained in this Node. This can be used as needed
      * either to mark nodes as "visited" or to tag them with a numerical
@@ -55,6 +62,12 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
      * @see Node#setState()
      */
     private Object _state;
+
+    /**
+     * Int id of this Node, assigned by the Graph when the Node is added to it.
+     * @see Graph#addNode(Comparable)
+     */
+    private int _id;
     
     /**
      * Constructs a new Node containing the given <i>data</i> object.
@@ -69,9 +82,12 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
      */
     public Node(T data) {
         _data = data;
+        _label = Node.getLabel(data);
         _edges = new HashMap<String, Node<T>>();
         _inEdges = new HashMap<String, Node<T>>();
+        _weights = new HashMap<String, Integer>();
         _state = null;
+        _id = -1;
     }
     
     /**
@@ -83,6 +99,14 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
         return _data;
     }
 
+    int getId() {
+        return _id;
+    }
+
+    void setId(int id) {
+        _id = id;
+    }
+
     /**
      * Gets the unique label from the given content object. The label
      * is the substring of content's string, starting at the 0 and ending at
@@ -92,17 +116,37 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
      * @return the label extracted from content.
      */
     public static String getLabel(Object content) {
-        return content.toString().split("\\s+:\\s+")[0];
+        String text = content.toString();
+        // the label ends where the first ':' surrounded by white spaces begins,
+        // matching the separator "\\s+:\\s+" without running a regular expression.
+        int length = text.length();
+        for (int i = text.indexOf(':', 1); i > 0 && i < length - 1; i = text.indexOf(':', i + 1)) {
+            if (isWhitespace(text.charAt(i - 1)) && isWhitespace(text.charAt(i + 1))) {
+                int end = i - 1;
+                while (end > 0 && isWhitespace(text.charAt(end - 1))) {
+                    end--;
+                }
+                return text.substring(0, end);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Checks if the character is a white space in the sense of the \\s regular expression.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     /**
      * Gets the label (lookup key) associated with this node. The label
      * is expected to be the string preceding the first ':' in the
-     * node's data field.
+     * node's data field. It is parsed once, when the node is constructed.
      * @return the label parsed from the node's data.
      */
     public String getLabel() {
-        return Node.getLabel(_data.toString());
+        return _label;
     }
     
     /**
@@ -135,21 +179,39 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
      * @see Node#_state
      */
     public void setState(Object value) {
-        // initialize the _unvisited queue with all the nodes from the outgoing edges
-        _unvisited = new LinkedList<Node<T>>();
-        _unvisited.addAll(_edges.values());
         _state = value;
     }
-    
+
     /**
-     * Adds a new directed graph Edge linking this Node to the otherNode.
+     * Adds a new directed graph Edge of weight 1 linking this Node to the otherNode.
      * @param otherNode - reference to the Node at the other end of the Edge.
      * @see Node#removeEdge(Node)
      */
     public void addEdge(Node<T> otherNode) {
+        addEdge(otherNode, 1);
+    }
+
+    /**
+     * Adds a new directed graph Edge of the given weight linking this Node to the otherNode.
+     * If the Edge already exists, only its weight is updated.
+     * @param otherNode - reference to the Node at the other end of the Edge.
+     * @param weight - the weight (length) of the Edge.
+     * @see Node#removeEdge(Node)
+     */
+    public void addEdge(Node<T> otherNode, int weight) {
         _edges.put(otherNode.getLabel(), otherNode);
+        _weights.put(otherNode.getLabel(), weight);
         otherNode._inEdges.put(this.getLabel(), this);
     }
+
+    /**
+     * Gets the weight of the directed graph Edge linking this Node to the otherNode.
+     * @param otherNode - reference to the Node at the other end of the Edge.
+     * @return the weight of the Edge, or null if there is no such Edge.
+     */
+    public Integer getWeight(Node<T> otherNode) {
+        return _weights.get(otherNode.getLabel());
+    }
     
     /**
      * Removes the directed graph Edge linking this Node to the otherNode.
@@ -161,6 +223,7 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
     public void removeEdge(Node<T> otherNode) {
         otherNode._inEdges.remove(this.getLabel());
         _edges.remove(otherNode.getLabel());
+        _weights.remove(otherNode.getLabel());
     }
     
     /**
@@ -175,16 +238,33 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
      */
     @Override
     public String toString() {
-        String output = _data.toString() + " > ";
+        StringBuilder output = new StringBuilder();
+        try {
+            writeTo(output);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes the String representation of this Node to the given output, token by token,
+     * without building the whole String in memory first.
+     * @param out - the output the Node is written to.
+     * @throws IOException if the output cannot be written.
+     * @see Node#toString()
+     */
+    public void writeTo(Appendable out) throws IOException {
+        out.append(_data.toString()).append(" > ");
         boolean first = true;
         for(Node<T> n : _edges.values()) {
             if (!first) {
-                output += " ";
+                out.append(' ');
             }
-            output += n.getLabel();
+            out.append(n.getLabel());
             first = false;
         }
-        return output;
     }
 
     /**
@@ -206,109 +286,51 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
         return new LinkedList<Node<T>>(_edges.values());
     }
 
-    public boolean isUNode() {
-        boolean uNode = true;
-        for (Node<T> n : _edges.values()) {
-            if (n._state == null && n._edges.get(this.getLabel()) != this) {
-                uNode = false;
-                break;
-            }
-        }
-        _state = 1;
-        return uNode;
-    }
-
-    public void traverse() {
-        _state = 1;
-        for (Node<T> n : _edges.values()) {
-            if (n.getState() == null) {
-                n.traverse();
-            }
-        }
-    }
-
-     /**
-     * Expand the marking in any of the children of this node
-     * (if any) to this node itself, then propagate it further 
-     * in the graph through traversal.
-     * @return true of the state of this node has changed.
+    /**
+     * Gives a read-only view over the nodes targeted by the outgoing (egress) edges.
+     * Unlike getNeighbors(), the returned collection is not a copy.
+     * @return collection of Node<T> neighboring nodes.
      */
-    public boolean expand() {
-        if (_state != null) {
-            return false;
-        }
-        for (Node<T> n : _edges.values()) {
-            if (n.getState() != null) {
-                traverse();
-                return true;
-            }
-        }
-        return false;
+    Collection<Node<T>> getEdges() {
+        return _edges.values();
     }
 
-    public boolean loops(Node<T> root) {
-        _state = 1;
-        for (Node<T> n : _edges.values()) {
-            if (n == root || (n._state == null && n.loops(root))) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Gives a read-only view over the nodes originating the incoming (ingress) edges.
+     * @return collection of Node<T> nodes pointing to this node.
+     */
+    Collection<Node<T>> getInEdges() {
+        return _inEdges.values();
     }
 
-    public Queue<Node<T>> topoCheck() {
-        Queue<Node<T>> changedNodes = new LinkedList<Node<T>>();
-        for(Node<T> n : _edges.values()) {
-            if ((int)n._state <= (int)_state) {
-                n._state = ((int)_state + 1);
-                changedNodes.add(n);
-            }
-        }
-        return changedNodes;
+    /**
+     * Gets the out-degree of this Node: the number of its outgoing (egress) edges.
+     * @return the out-degree of this Node.
+     */
+    public int getOutDegree() {
+        return _edges.size();
     }
 
-    public void mark(int state) {
-        _state = state;
-        for (Node<T> n : _edges.values()) {
-            if ((int)n.getState() != state) {
-                n.mark(state);
-            }
-        }
+    /**
+     * Gets the in-degree of this Node: the number of its incoming (ingress) edges.
+     * @return the in-degree of this Node.
+     */
+    public int getInDegree() {
+        return _inEdges.size();
     }
 
-    public boolean nextToMark(int state) {
+    /**
+     * Checks if each of the outgoing (egress) edges of this Node is matched
+     * by an edge linking back the neighboring node to this Node.
+     * @return true if all edges of this Node are undirected, false otherwise.
+     */
+    public boolean isUNode() {
         for (Node<T> n : _edges.values()) {
-            if ((int)n.getState() == state) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    public void dijkstra(int distance) {
-        if ((int)_state <= distance) {
-            return;
-        }
-        _state = distance;
-        for(Node<T> neighbor : _edges.values()) {
-            neighbor.dijkstra(distance+1);
-        }
-    }
-
-    public boolean hasPath(Node<T> toNode) {
-        if (this == toNode) {
-            return true;
-        }
-        _state = 1;
-        for(Node<T> node : _edges.values()) {
-            if ((int)node._state == 0) {
-                if (node.hasPath(toNode)) {
-                    return true;
-                }
+            if (n._edges.get(this.getLabel()) != this) {
+                return false;
             }
         }
-        
-        return false;
+        return true;
     }
 
     /**
@@ -319,28 +341,4 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
     public boolean isEulerian() {
         return (this._edges.size() == this._inEdges.size());
     }
-
-    /**
-     * Determines the path from this node to the target node, if one exists.
-     * If it does, returns the array list of all nodes in the path, with the 
-     * target node at the last index.
-     * @return array list of nodes in the path if one exists, null otherwise.
-     */
-    public ArrayList<T> getPath(Node<T> targetNode) {
-        ArrayList<T> path = null;
-        for(int i = _unvisited.size(); i > 0; i--) {
-            Node<T> n = _unvisited.remove();
-            path = (n == targetNode) ? new ArrayList<T>() : n.getPath(targetNode);
-            if (path != null) {
-                path.add(0, n._data);
-                break;
-            }
-            _unvisited.add(n);
-        }
-        return path;
-    }
-
-    public boolean hasUnvisited() {
-        return !_unvisited.isEmpty();
-    }
 }
@@ -0,0 +1,212 @@
+package Graphs.main;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Class definition for a parallel, level-synchronous breadth-first search over a
+ * GraphSnapshot, computing the number of edges on the shortest path from a source
+ * node to every other node.
+ * <br>The search advances one level at a time, the nodes of the current level (the
+ * frontier) being split in chunks processed by the tasks of a ForkJoinPool. A node is
+ * claimed by the first task setting its bit in an atomic visited bitmap, so each node
+ * joins exactly one level. Each level runs in one of two directions:<br>
+ * - top-down: the frontier nodes follow their outgoing edges towards unvisited nodes;<br>
+ * - bottom-up: the unvisited nodes look through their incoming edges for a frontier node,
+ * stopping at the first one found.<br>
+ * Top-down is cheaper while the frontier is small. Once the edges leaving the frontier
+ * outnumber a fraction of the edges left to explore, bottom-up checks fewer edges, and the
+ * search switches back when the frontier shrinks again (direction-optimizing BFS).
+ * @see GraphSnapshot#breadthFirstDistances(Comparable)
+ */
+class ParallelBreadthFirst {
+
+    /**
+     * Switch to bottom-up when the edges out of the frontier exceed 1/ALPHA of the edges
+     * left to explore, back to top-down when the frontier falls under 1/BETA of the nodes.
+     */
+    private static final int _ALPHA = 14;
+    private static final int _BETA = 24;
+
+    /**
+     * Number of frontier nodes (top-down) or of nodes (bottom-up) processed by a single task.
+     */
+    private static final int _GRAIN = 1024;
+
+    // CSR arrays of the snapshot being searched
+    private int[] _offsets;
+    private int[] _targets;
+    private int[] _inOffsets;
+    private int[] _inSources;
+    private int _size;
+
+    private ForkJoinPool _pool;
+
+    // distance of each node, or -1 if not visited yet
+    private int[] _distance;
+    // visited bitmap, claimed atomically by the tasks
+    private AtomicLongArray _visited;
+    // the current frontier, and the next one filled by the tasks
+    private int[] _frontier;
+    private int _frontierSize;
+    private int[] _next;
+    private AtomicInteger _nextSize;
+    // bitmap of the current frontier, for the bottom-up levels
+    private long[] _frontierBits;
+
+    /**
+     * Constructs the search over the given snapshot, running on the given pool.
+     * @param graph - the snapshot to be searched.
+     * @param pool - the pool running the tasks of each level.
+     */
+    ParallelBreadthFirst(GraphSnapshot<?> graph, ForkJoinPool pool) {
+        _offsets = graph.getOffsets();
+        _targets = graph.getTargets();
+        _inOffsets = graph.getInOffsets();
+        _inSources = graph.getInSources();
+        _size = graph.size();
+        _pool = pool;
+    }
+
+    /**
+     * Runs the search from the given source node.
+     * @param source - id of the source node.
+     * @return the number of edges on the shortest path to each node, or -1 for the
+     * nodes which cannot be reached.
+     */
+    int[] distances(int source) {
+        _distance = new int[_size];
+        Arrays.fill(_distance, -1);
+        _visited = new AtomicLongArray((_size + 63) / 64);
+        _frontier = new int[_size];
+        _next = new int[_size];
+        _nextSize = new AtomicInteger();
+        _frontierBits = new long[(_size + 63) / 64];
+
+        _distance[source] = 0;
+        claim(source);
+        _frontier[0] = source;
+        _frontierSize = 1;
+        // edges not yet explored: the out-degrees of the nodes not visited yet
+        long unexploredEdges = _targets.length - degree(source);
+        boolean bottomUp = false;
+        for (int level = 1; _frontierSize > 0; level++) {
+            long frontierEdges = 0;
+            for (int i = 0; i < _frontierSize; i++) {
+                frontierEdges += degree(_frontier[i]);
+            }
+            if (!bottomUp && frontierEdges > unexploredEdges / _ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && _frontierSize < _size / _BETA) {
+                bottomUp = false;
+            }
+
+            _nextSize.set(0);
+            final int depth = level;
+            if (bottomUp) {
+                Arrays.fill(_frontierBits, 0);
+                for (int i = 0; i < _frontierSize; i++) {
+                    _frontierBits[_frontier[i] >>> 6] |= 1L << _frontier[i];
+                }
+                _pool.invoke(new RangeTask(0, _size, _GRAIN, (from, to) -> bottomUp(from, to, depth)));
+            } else {
+                _pool.invoke(new RangeTask(0, _frontierSize, _GRAIN, (from, to) -> topDown(from, to, depth)));
+            }
+
+            int[] swap = _frontier;
+            _frontier = _next;
+            _next = swap;
+            _frontierSize = _nextSize.get();
+            for (int i = 0; i < _frontierSize; i++) {
+                unexploredEdges -= degree(_frontier[i]);
+            }
+        }
+        return _distance;
+    }
+
+    private int degree(int id) {
+        return _offsets[id + 1] - _offsets[id];
+    }
+
+    private boolean isVisited(int id) {
+        return (_visited.get(id >>> 6) & (1L << id)) != 0;
+    }
+
+    /**
+     * Marks the node as visited.
+     * @return true if this call visited the node, false if it was already visited.
+     */
+    private boolean claim(int id) {
+        long bit = 1L << id;
+        long word;
+        do {
+            word = _visited.get(id >>> 6);
+            if ((word & bit) != 0) {
+                return false;
+            }
+        } while (!_visited.compareAndSet(id >>> 6, word, word | bit));
+        return true;
+    }
+
+    /**
+     * Appends the nodes found by a task to the next frontier, reserving their
+     * range of the array in a single atomic operation.
+     */
+    private void publish(int[] found, int count) {
+        int start = _nextSize.getAndAdd(count);
+        System.arraycopy(found, 0, _next, start, count);
+    }
+
+    /**
+     * Top-down step over the frontier nodes [from, to): claims the unvisited
+     * targets of their outgoing edges.
+     */
+    private void topDown(int from, int to, int level) {
+        int[] found = new int[64];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int u = _frontier[i];
+            for (int k = _offsets[u]; k < _offsets[u + 1]; k++) {
+                int v = _targets[k];
+                if (!isVisited(v) && claim(v)) {
+                    _distance[v] = level;
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, 2 * count);
+                    }
+                    found[count++] = v;
+                }
+            }
+        }
+        publish(found, count);
+    }
+
+    /**
+     * Bottom-up step over the nodes [from, to): each unvisited node joins the next
+     * level if any source of its incoming edges is in the frontier. Each node is only
+     * checked by the task owning its range, so no other task competes for it.
+     */
+    private void bottomUp(int from, int to, int level) {
+        int[] found = new int[64];
+        int count = 0;
+        for (int v = from; v < to; v++) {
+            if (isVisited(v)) {
+                continue;
+            }
+            for (int k = _inOffsets[v]; k < _inOffsets[v + 1]; k++) {
+                int u = _inSources[k];
+                if ((_frontierBits[u >>> 6] & (1L << u)) != 0) {
+                    claim(v);
+                    _distance[v] = level;
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, 2 * count);
+                    }
+                    found[count++] = v;
+                    break;
+                }
+            }
+        }
+        publish(found, count);
+    }
+}
@@ -0,0 +1,48 @@
+package Graphs.main;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class definition for a ForkJoin task running some work over a range of indexes
+ * [from, to). The task splits its range in halves, forking them, until they are no
+ * larger than the grain, such that idle workers of the pool steal the halves left.
+ */
+class RangeTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Work on a range of indexes [from, to).
+     */
+    interface Work {
+        void run(int from, int to);
+    }
+
+    private int _from;
+    private int _to;
+    private int _grain;
+    private Work _work;
+
+    /**
+     * Constructs the task running the work over [from, to).
+     * @param from - first index of the range.
+     * @param to - index following the last one of the range.
+     * @param grain - largest range run by a single task, at least 1.
+     * @param work - the work to be run on each range.
+     */
+    RangeTask(int from, int to, int grain, Work work) {
+        _from = from;
+        _to = to;
+        _grain = grain;
+        _work = work;
+    }
+
+    @Override
+    protected void compute() {
+        if (_to - _from <= _grain) {
+            _work.run(_from, _to);
+            return;
+        }
+        int middle = (_from + _to) >>> 1;
+        invokeAll(new RangeTask(_from, middle, _grain, _work), new RangeTask(middle, _to, _grain, _work));
+    }
+}
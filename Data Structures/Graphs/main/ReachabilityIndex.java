@@ -0,0 +1,296 @@
+package Graphs.main;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Class definition for an index answering reachability queries (is there a path from
+ * node u to node v?) on a GraphSnapshot, without traversing the whole graph each time.
+ * <p>
+ * The index collapses each strongly connected component into one vertex of the
+ * condensation, a Directed Acyclic Graph. Components are numbered in reverse topological
+ * order, so a path can only lead from a component to one with a lower or equal index.
+ * On top of this:<br>
+ * - small condensations get one bitset per component, holding all the components it
+ * reaches, answering each query exactly in O(1);<br>
+ * - larger ones get two interval labels per component, from two depth-first traversals
+ * in opposite orders. A component reaching another one always contains its intervals,
+ * so most negative queries are answered in O(1) and positive ones fall back to a
+ * depth-first search pruned by the same labels.
+ * <p>
+ * The index is immutable and can be queried from several threads at once.
+ * @see GraphSnapshot#getReachabilityIndex()
+ */
+public class ReachabilityIndex {
+
+    /**
+     * Largest condensation (number of components) indexed with bitsets.
+     * At this size the bitsets take 2MB.
+     */
+    private static final int _MAX_BITSET_COMPONENTS = 4096;
+
+    // strongly connected component of each node
+    private int[] _component;
+    // condensation DAG, in CSR form: successors of c are _dagTargets[_dagOffsets[c] .. _dagOffsets[c+1]-1]
+    private int[] _dagOffsets;
+    private int[] _dagTargets;
+    // bitset rows of reachable components, _words longs per component, or null if not used
+    private long[] _reach;
+    private int _words;
+    // interval labels [_low[i][c], _post[i][c]] of each component, for each of the two traversals
+    private int[][] _low;
+    private int[][] _post;
+    // pool of idle search contexts for the pruned depth-first searches
+    private Queue<Search> _searches;
+
+    /**
+     * Per-query context of the pruned depth-first search over the condensation.
+     */
+    private static class Search {
+        private int[] _marks;
+        private int _epoch;
+        private int[] _stack;
+
+        private Search(int size) {
+            _marks = new int[size];
+            _stack = new int[size];
+            _epoch = 0;
+        }
+    }
+
+    /**
+     * Builds the reachability index of the given snapshot.
+     * @param graph - the snapshot to be indexed.
+     */
+    ReachabilityIndex(GraphSnapshot<?> graph) {
+        _component = graph.getStrongComponentIds();
+        int count = 0;
+        for (int c : _component) {
+            count = Math.max(count, c + 1);
+        }
+        buildCondensation(graph, count);
+        if (count <= _MAX_BITSET_COMPONENTS) {
+            buildBitsets(count);
+        } else {
+            _low = new int[2][];
+            _post = new int[2][];
+            buildIntervals(count, 0, false);
+            buildIntervals(count, 1, true);
+            _searches = new ConcurrentLinkedQueue<Search>();
+        }
+    }
+
+    /**
+     * Builds the condensation DAG, linking each component to the distinct
+     * components targeted by the edges of its nodes.
+     */
+    private void buildCondensation(GraphSnapshot<?> graph, int count) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int n = _component.length;
+
+        // group the nodes by their component (counting sort)
+        int[] nodeOffsets = new int[count + 1];
+        for (int c : _component) {
+            nodeOffsets[c + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            nodeOffsets[c + 1] += nodeOffsets[c];
+        }
+        int[] nodes = new int[n];
+        int[] fill = nodeOffsets.clone();
+        for (int u = 0; u < n; u++) {
+            nodes[fill[_component[u]]++] = u;
+        }
+
+        // two passes over the edges: count, then fill in the distinct successors.
+        // lastSeen[d] == c + 1 if d was already linked from component c.
+        int[] lastSeen = new int[count];
+        _dagOffsets = new int[count + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            Arrays.fill(lastSeen, 0);
+            for (int c = 0; c < count; c++) {
+                int k = _dagOffsets[c];
+                int degree = 0;
+                for (int i = nodeOffsets[c]; i < nodeOffsets[c + 1]; i++) {
+                    int u = nodes[i];
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        int d = _component[targets[e]];
+                        if (d != c && lastSeen[d] != c + 1) {
+                            lastSeen[d] = c + 1;
+                            if (pass == 1) {
+                                _dagTargets[k++] = d;
+                            }
+                            degree++;
+                        }
+                    }
+                }
+                if (pass == 0) {
+                    _dagOffsets[c + 1] = _dagOffsets[c] + degree;
+                }
+            }
+            if (pass == 0) {
+                _dagTargets = new int[_dagOffsets[count]];
+            }
+        }
+    }
+
+    /**
+     * Builds the bitset of reachable components for each component. Successors always have
+     * lower indexes, so processing components in increasing order finds their rows complete.
+     */
+    private void buildBitsets(int count) {
+        _words = (count + 63) / 64;
+        _reach = new long[count * _words];
+        for (int c = 0; c < count; c++) {
+            int row = c * _words;
+            _reach[row + c / 64] |= 1L << (c % 64);
+            for (int k = _dagOffsets[c]; k < _dagOffsets[c + 1]; k++) {
+                int succ = _dagTargets[k] * _words;
+                for (int w = 0; w < _words; w++) {
+                    _reach[row + w] |= _reach[succ + w];
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds one interval label for each component through an iterative post-order
+     * depth-first traversal of the condensation. The label of a component is
+     * [lowest post-order rank among the components it reaches, its own post-order rank].
+     * @param count - number of components.
+     * @param label - index of the label being built.
+     * @param reversed - true to visit roots and successors in reverse order.
+     */
+    private void buildIntervals(int count, int label, boolean reversed) {
+        int[] low = new int[count];
+        int[] post = new int[count];
+        int[] cursor = new int[count];
+        int[] stack = new int[count];
+        boolean[] visited = new boolean[count];
+        int rank = 0;
+        for (int r = 0; r < count; r++) {
+            // roots are taken from the sources (high indexes) down, or the other way around
+            int root = reversed ? r : count - 1 - r;
+            if (visited[root]) {
+                continue;
+            }
+            int top = 0;
+            visited[root] = true;
+            cursor[root] = 0;
+            low[root] = Integer.MAX_VALUE;
+            stack[top++] = root;
+            while (top > 0) {
+                int c = stack[top - 1];
+                int degree = _dagOffsets[c + 1] - _dagOffsets[c];
+                if (cursor[c] < degree) {
+                    int k = reversed
+                        ? _dagOffsets[c + 1] - 1 - cursor[c]
+                        : _dagOffsets[c] + cursor[c];
+                    cursor[c]++;
+                    int d = _dagTargets[k];
+                    if (!visited[d]) {
+                        visited[d] = true;
+                        cursor[d] = 0;
+                        low[d] = Integer.MAX_VALUE;
+                        stack[top++] = d;
+                    } else {
+                        low[c] = Math.min(low[c], low[d]);
+                    }
+                    continue;
+                }
+                top--;
+                post[c] = rank++;
+                low[c] = Math.min(low[c], post[c]);
+                if (top > 0) {
+                    int parent = stack[top - 1];
+                    low[parent] = Math.min(low[parent], low[c]);
+                }
+            }
+        }
+        _low[label] = low;
+        _post[label] = post;
+    }
+
+    /**
+     * Gets the number of strongly connected components (vertices of the condensation).
+     * @return number of components.
+     */
+    public int getComponentCount() {
+        return _dagOffsets.length - 1;
+    }
+
+    /**
+     * Checks if the intervals of component c contain the intervals of component d,
+     * which is a necessary condition for c to reach d.
+     */
+    private boolean contains(int c, int d) {
+        for (int i = 0; i < _low.length; i++) {
+            if (_low[i][c] > _low[i][d] || _post[i][d] > _post[i][c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines if a path exists between two nodes of the indexed snapshot.
+     * @param fromId - id of the origin node.
+     * @param toId - id of the target node.
+     * @return true if a path exists, false otherwise.
+     */
+    public boolean hasPath(int fromId, int toId) {
+        int from = _component[fromId];
+        int to = _component[toId];
+        if (from == to) {
+            return true;
+        }
+        // paths only lead to components with lower indexes
+        if (from < to) {
+            return false;
+        }
+        if (_reach != null) {
+            return (_reach[from * _words + to / 64] & (1L << (to % 64))) != 0;
+        }
+        if (!contains(from, to)) {
+            return false;
+        }
+        return search(from, to);
+    }
+
+    /**
+     * Searches depth-first for a path in the condensation, skipping the components
+     * which cannot reach the target according to their index and intervals.
+     */
+    private boolean search(int from, int to) {
+        Search search = _searches.poll();
+        if (search == null) {
+            search = new Search(getComponentCount());
+        }
+        if (++search._epoch == 0) {
+            Arrays.fill(search._marks, 0);
+            search._epoch = 1;
+        }
+        boolean found = false;
+        int top = 0;
+        search._stack[top++] = from;
+        search._marks[from] = search._epoch;
+        while (top > 0 && !found) {
+            int c = search._stack[--top];
+            for (int k = _dagOffsets[c]; k < _dagOffsets[c + 1]; k++) {
+                int d = _dagTargets[k];
+                if (d == to) {
+                    found = true;
+                    break;
+                }
+                if (d > to && search._marks[d] != search._epoch && contains(d, to)) {
+                    search._marks[d] = search._epoch;
+                    search._stack[top++] = d;
+                }
+            }
+        }
+        _searches.add(search);
+        return found;
+    }
+}
@@ -0,0 +1,164 @@
+package Graphs.main;
+
+import java.util.Arrays;
+
+/**
+ * Class definition for an immutable, square sparse matrix of ints, holding its stored
+ * entries only. A stored entry may hold the value 0: for the adjacency matrix of a Graph,
+ * the entries are the Edges, including those of weight 0, and contains(row, column)
+ * tells them apart from the missing ones. The entries are stored in Compressed Sparse Row (CSR) form:
+ * <pre>
+ * entries of row i: columns[rowOffsets[i]] .. columns[rowOffsets[i+1] - 1], with their values
+ * </pre>
+ * the columns of each row being sorted, such that a single entry is found by binary search.
+ * The same entries are available in coordinate (COO) form, as three parallel arrays of
+ * rows, columns and values, for tools loading matrices as lists of triplets.
+ * <br>For the adjacency matrix of a Graph, the value of each entry is the weight of its Edge,
+ * and the matrix takes O(V+E) memory instead of the O(V&sup2;) of a dense matrix.
+ * @see GraphSnapshot#getSparseMatrix()
+ */
+public class SparseMatrix {
+    // start index in _columns of the entries of each row, size()+1 entries
+    private int[] _rowOffsets;
+    // column of each entry, sorted within each row
+    private int[] _columns;
+    // value of each entry, parallel to _columns
+    private int[] _values;
+
+    /**
+     * Constructs the sparse matrix having the given entries, in CSR form with the
+     * columns of each row in any order. The arrays are sorted in place.
+     * @param rowOffsets - start index in columns of the entries of each row.
+     * @param columns - column of each entry, grouped by row.
+     * @param values - value of each entry, parallel to columns.
+     */
+    SparseMatrix(int[] rowOffsets, int[] columns, int[] values) {
+        _rowOffsets = rowOffsets;
+        _columns = columns;
+        _values = values;
+        for (int i = 0; i < size(); i++) {
+            sortRow(_rowOffsets[i], _rowOffsets[i + 1]);
+        }
+    }
+
+    /**
+     * Sorts the entries [from, to) by column, through insertion sort for short rows
+     * and by sorting (column, value) pairs packed in longs otherwise.
+     */
+    private void sortRow(int from, int to) {
+        if (to - from <= 16) {
+            for (int k = from + 1; k < to; k++) {
+                int column = _columns[k];
+                int value = _values[k];
+                int j = k - 1;
+                while (j >= from && _columns[j] > column) {
+                    _columns[j + 1] = _columns[j];
+                    _values[j + 1] = _values[j];
+                    j--;
+                }
+                _columns[j + 1] = column;
+                _values[j + 1] = value;
+            }
+            return;
+        }
+        long[] pairs = new long[to - from];
+        for (int k = from; k < to; k++) {
+            pairs[k - from] = ((long)_columns[k] << 32) | (_values[k] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(pairs);
+        for (int k = from; k < to; k++) {
+            _columns[k] = (int)(pairs[k - from] >>> 32);
+            _values[k] = (int)pairs[k - from];
+        }
+    }
+
+    /**
+     * Gets the number of rows (and columns) of this matrix.
+     * @return the size of the matrix.
+     */
+    public int size() {
+        return _rowOffsets.length - 1;
+    }
+
+    /**
+     * Gets the number of stored entries of this matrix, including those of value 0.
+     * @return number of stored entries.
+     */
+    public int getEntryCount() {
+        return _columns.length;
+    }
+
+    /**
+     * Gets the value of an entry, in O(log(row length)).
+     * @param row - index of the row.
+     * @param column - index of the column.
+     * @return the value of the entry, 0 if the entry is not stored.
+     */
+    public int get(int row, int column) {
+        int k = Arrays.binarySearch(_columns, _rowOffsets[row], _rowOffsets[row + 1], column);
+        return (k >= 0) ? _values[k] : 0;
+    }
+
+    /**
+     * Checks whether an entry is stored, in O(log(row length)). Unlike get(row, column),
+     * this tells a stored entry of value 0 from a missing one.
+     * @param row - index of the row.
+     * @param column - index of the column.
+     * @return true if the entry is stored, false otherwise.
+     */
+    public boolean contains(int row, int column) {
+        return Arrays.binarySearch(_columns, _rowOffsets[row], _rowOffsets[row + 1], column) >= 0;
+    }
+
+    /**
+     * Gets the CSR row offsets: the entries of row i are at indexes
+     * [rowOffsets[i], rowOffsets[i+1]) of the columns and values arrays.
+     * @return a copy of the row offsets, size()+1 entries.
+     */
+    public int[] getRowOffsets() {
+        return _rowOffsets.clone();
+    }
+
+    /**
+     * Gets the column of each entry, sorted within each row.
+     * @return a copy of the columns.
+     */
+    public int[] getColumns() {
+        return _columns.clone();
+    }
+
+    /**
+     * Gets the value of each entry, parallel to getColumns().
+     * @return a copy of the values.
+     */
+    public int[] getValues() {
+        return _values.clone();
+    }
+
+    /**
+     * Gets the row of each entry, parallel to getColumns(). Together with getColumns()
+     * and getValues(), this gives the entries in coordinate (COO) form.
+     * @return the row of each entry.
+     */
+    public int[] getRows() {
+        int[] rows = new int[_columns.length];
+        for (int i = 0; i < size(); i++) {
+            Arrays.fill(rows, _rowOffsets[i], _rowOffsets[i + 1], i);
+        }
+        return rows;
+    }
+
+    /**
+     * Converts this matrix to a bit matrix, true wherever an entry is stored.
+     * @return the bit matrix of the stored entries.
+     */
+    public BitMatrix toBitMatrix() {
+        BitMatrix matrix = new BitMatrix(size());
+        for (int i = 0; i < size(); i++) {
+            for (int k = _rowOffsets[i]; k < _rowOffsets[i + 1]; k++) {
+                matrix.set(i, _columns[k]);
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,230 @@
+package Graphs.main;
+
+import java.util.Arrays;
+
+/**
+ * Class definition for the iterative traversal kernel running over a GraphSnapshot.
+ * Depth-first and breadth-first traversals use an explicit int stack (or queue)
+ * instead of recursion, such that the depth of the graph does not limit its size.
+ * <br>The buffers are allocated once, for the size of the snapshot, and reused by
+ * every traversal. Visited nodes are marked with the current epoch, so starting a
+ * new traversal (clear()) does not need to sweep the marks of the previous one.
+ * <br>A Traversal holds all the state of one query, it is the per-query context
+ * replacing the state stored in the Nodes. It is not thread-safe: concurrent queries
+ * each need their own.
+ * @see GraphSnapshot
+ */
+class Traversal {
+
+    /**
+     * Callbacks invoked by the traversal as it reaches and leaves each node.
+     */
+    interface Visitor {
+        /**
+         * Called when the node is reached for the first time (pre-order).
+         * @param id - id of the node being reached.
+         * @return true to continue the traversal, false to stop it.
+         */
+        boolean visit(int id);
+
+        /**
+         * Called when all the edges of the node have been followed (post-order).
+         * Only invoked by depth-first traversals.
+         * @param id - id of the node being left.
+         */
+        default void leave(int id) {
+        }
+    }
+
+    // CSR arrays of the snapshot being traversed
+    private int[] _offsets;
+    private int[] _targets;
+    private int[] _inOffsets;
+    private int[] _inSources;
+
+    // epoch mark of each node: a node is visited if its mark equals _epoch
+    private int[] _marks;
+    private int _epoch;
+
+    // explicit stack (depth-first) or queue (breadth-first) of node ids
+    private int[] _stack;
+    // number of nodes on the depth-first stack
+    private int _depth;
+    // index of the next edge to be followed from each node on the depth-first stack
+    private int[] _cursor;
+
+    /**
+     * Constructs the traversal kernel for the given snapshot.
+     * @param graph - the snapshot to be traversed.
+     */
+    Traversal(GraphSnapshot<?> graph) {
+        _offsets = graph.getOffsets();
+        _targets = graph.getTargets();
+        _inOffsets = graph.getInOffsets();
+        _inSources = graph.getInSources();
+        _marks = new int[graph.size()];
+        _epoch = 0;
+        _stack = new int[graph.size()];
+        _cursor = new int[graph.size()];
+        _depth = 0;
+    }
+
+    /**
+     * Starts a new traversal: all nodes become not visited, in O(1).
+     */
+    void clear() {
+        _epoch++;
+        if (_epoch == 0) {
+            // the epoch wrapped around, the old marks need to be wiped out
+            Arrays.fill(_marks, 0);
+            _epoch = 1;
+        }
+        _depth = 0;
+    }
+
+    boolean isVisited(int id) {
+        return _marks[id] == _epoch;
+    }
+
+    void setVisited(int id) {
+        _marks[id] = _epoch;
+    }
+
+    /**
+     * Gets the number of nodes on the depth-first stack. While a depth-first traversal
+     * is running, or after it was stopped, these nodes are the path from the root of
+     * the traversal to the node currently visited.
+     * @return number of nodes on the depth-first stack.
+     */
+    int getDepth() {
+        return _depth;
+    }
+
+    /**
+     * Gets the node at the given depth on the depth-first stack.
+     * @param depth - index on the stack, 0 being the root of the traversal.
+     * @return id of the node.
+     */
+    int getStackNode(int depth) {
+        return _stack[depth];
+    }
+
+    /**
+     * Traverses depth-first all the nodes reachable from root and not visited yet,
+     * in the same order as a recursive traversal would.
+     * @param root - id of the node where the traversal starts.
+     * @param visitor - callbacks invoked when reaching and leaving each node.
+     * @return true if the traversal completed, false if it was stopped by the visitor.
+     */
+    boolean depthFirst(int root, Visitor visitor) {
+        if (isVisited(root)) {
+            return true;
+        }
+        _depth = 0;
+        if (!push(root, visitor)) {
+            return false;
+        }
+        while (_depth > 0) {
+            int u = _stack[_depth - 1];
+            if (_cursor[u] < _offsets[u + 1]) {
+                int v = _targets[_cursor[u]++];
+                if (!isVisited(v) && !push(v, visitor)) {
+                    return false;
+                }
+            } else {
+                _depth--;
+                visitor.leave(u);
+            }
+        }
+        return true;
+    }
+
+    private boolean push(int id, Visitor visitor) {
+        setVisited(id);
+        _cursor[id] = _offsets[id];
+        _stack[_depth++] = id;
+        return visitor.visit(id);
+    }
+
+    /**
+     * Traverses breadth-first all the nodes reachable from root and not visited yet.
+     * @param root - id of the node where the traversal starts.
+     * @param undirected - true if edges are to be followed in either direction.
+     * @param visitor - callbacks invoked when reaching each node.
+     * @return true if the traversal completed, false if it was stopped by the visitor.
+     */
+    boolean breadthFirst(int root, boolean undirected, Visitor visitor) {
+        if (isVisited(root)) {
+            return true;
+        }
+        int head = 0;
+        int tail = 0;
+        setVisited(root);
+        _stack[tail++] = root;
+        if (!visitor.visit(root)) {
+            return false;
+        }
+        while (head < tail) {
+            int u = _stack[head++];
+            for (int k = _offsets[u]; k < _offsets[u + 1]; k++) {
+                int v = _targets[k];
+                if (!isVisited(v)) {
+                    setVisited(v);
+                    _stack[tail++] = v;
+                    if (!visitor.visit(v)) {
+                        return false;
+                    }
+                }
+            }
+            for (int k = _inOffsets[u]; undirected && k < _inOffsets[u + 1]; k++) {
+                int v = _inSources[k];
+                if (!isVisited(v)) {
+                    setVisited(v);
+                    _stack[tail++] = v;
+                    if (!visitor.visit(v)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines a path from one node to another, by a depth-first traversal. If the two
+     * nodes are the same, the path is a cycle starting and ending in that node.
+     * @param from - id of the node where the path starts.
+     * @param to - id of the node where the path ends.
+     * @return the ids of the nodes on the path, excluding <i>from</i> and with <i>to</i>
+     * at the last index, or null if there is no such path.
+     */
+    int[] getPath(int from, int to) {
+        clear();
+        // the start of a cycle is not marked, such that it can be reached again
+        if (from != to) {
+            setVisited(from);
+        }
+        _cursor[from] = _offsets[from];
+        _stack[_depth++] = from;
+        while (_depth > 0) {
+            int u = _stack[_depth - 1];
+            if (_cursor[u] == _offsets[u + 1]) {
+                _depth--;
+                continue;
+            }
+            int v = _targets[_cursor[u]++];
+            if (v == to) {
+                int[] path = new int[_depth];
+                System.arraycopy(_stack, 1, path, 0, _depth - 1);
+                path[_depth - 1] = to;
+                return path;
+            }
+            if (!isVisited(v)) {
+                setVisited(v);
+                _cursor[v] = _offsets[v];
+                _stack[_depth++] = v;
+            }
+        }
+        return null;
+    }
+}
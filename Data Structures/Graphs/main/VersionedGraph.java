@@ -0,0 +1,363 @@
+package Graphs.main;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Class definition for a Graph shared between writer threads, modifying it, and reader
+ * threads, analyzing it at the same time. Writers modify a private Graph, one at a time,
+ * and publish each new state of it as an immutable GraphSnapshot, numbered by a version.
+ * Readers pin the latest published version and run any algorithm on its snapshot:
+ * pinning is a single volatile read, so readers never wait for writers, and writers
+ * never wait for readers. A pinned snapshot stays valid, and unchanged, for as long as
+ * the reader keeps it, whatever the writers publish in the meantime.
+ * <br>The Nodes and Edges of each version are stored in segments of consecutive Node ids,
+ * which are immutable and shared between versions: publishing a version rebuilds only the
+ * segments holding Nodes whose data or outgoing Edges changed since the previous version,
+ * and reuses the others. A publication thus costs the size of the changed segments, plus
+ * one reference per segment, instead of the O(V+E) of a whole snapshot. The snapshot of a
+ * version is assembled from its segments, in O(V+E), by the first reader asking for it.
+ * Each single modification (addNode, addEdge, ...) publishes a version. Series of
+ * modifications are better grouped through update(), publishing a single version for
+ * all of them.
+ * <br>E.g.:<pre>
+ * VersionedGraph&lt;String&gt; vg = new VersionedGraph&lt;String&gt;();
+ * vg.update(g -&gt; { g.addNode("A"); g.addNode("B"); g.addEdge("A", "B"); });
+ * // on any other thread:
+ * GraphSnapshot&lt;String&gt; s = vg.pin().getSnapshot();
+ * boolean connected = s.isConnected();
+ * </pre>
+ * @param <T> - reference type of Nodes contained in the Graph.
+ * @see GraphSnapshot
+ */
+public class VersionedGraph<T extends Comparable<T>> {
+
+    // number of consecutive Node ids in each segment
+    private static final int _SEGMENT_SIZE = 256;
+
+    /**
+     * Class definition for the Nodes having a range of _SEGMENT_SIZE consecutive ids in the
+     * Graph, with their outgoing Edges in Compressed Sparse Row (CSR) form. A segment is never
+     * modified once built: a version changing any of its Nodes gets a new segment.
+     * @param <T> - reference type of Nodes contained in the Graph.
+     */
+    private static class Segment<T extends Comparable<T>> {
+        // data of each Node of the range, null for the ids having no Node
+        private ArrayList<T> _data;
+        // number of Nodes in the range
+        private int _count;
+        // start index in _targets of the outgoing Edges of each Node, _SEGMENT_SIZE+1 entries
+        private int[] _offsets;
+        // Graph ids of the Nodes targeted by the outgoing Edges, and their weights
+        private int[] _targets;
+        private int[] _weights;
+
+        /**
+         * Constructs the segment holding the current Nodes of the Graph having the ids
+         * first .. first + _SEGMENT_SIZE - 1.
+         */
+        private Segment(Graph<T> graph, int first) {
+            _data = new ArrayList<T>(_SEGMENT_SIZE);
+            _offsets = new int[_SEGMENT_SIZE + 1];
+            for (int i = 0; i < _SEGMENT_SIZE; i++) {
+                Node<T> node = graph.getNodeById(first + i);
+                _data.add((node == null) ? null : node.getData());
+                _offsets[i + 1] = _offsets[i] + ((node == null) ? 0 : node.getOutDegree());
+                _count += (node == null) ? 0 : 1;
+            }
+            _targets = new int[_offsets[_SEGMENT_SIZE]];
+            _weights = new int[_offsets[_SEGMENT_SIZE]];
+            for (int i = 0; i < _SEGMENT_SIZE; i++) {
+                Node<T> node = graph.getNodeById(first + i);
+                if (node != null) {
+                    int k = _offsets[i];
+                    for (Node<T> other : node.getEdges()) {
+                        _targets[k] = other.getId();
+                        _weights[k] = node.getWeight(other);
+                        k++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Class definition for a published version of a VersionedGraph: its number, the
+     * segments holding the Graph at that version and its immutable snapshot.
+     * @param <T> - reference type of Nodes contained in the Graph.
+     */
+    public static class Version<T extends Comparable<T>> {
+        private long _number;
+        private ArrayList<Segment<T>> _segments;
+        // number of segments built for this version, the others being shared with the previous one
+        private int _built;
+        // snapshot of this version, assembled from the segments on demand
+        private volatile GraphSnapshot<T> _snapshot;
+
+        private Version(long number, ArrayList<Segment<T>> segments, int built) {
+            _number = number;
+            _segments = segments;
+            _built = built;
+            _snapshot = null;
+        }
+
+        /**
+         * Gets the number of this version. The first version is 0 and each
+         * publication increments the number by 1.
+         * @return the version number.
+         */
+        public long getNumber() {
+            return _number;
+        }
+
+        /**
+         * Gets the number of segments holding the Graph at this version.
+         * @return the number of segments.
+         */
+        public int getSegmentCount() {
+            return _segments.size();
+        }
+
+        /**
+         * Gets the number of segments built when this version was published, the other
+         * ones being shared with the previous version.
+         * @return the number of segments built for this version.
+         */
+        public int getBuiltSegmentCount() {
+            return _built;
+        }
+
+        /**
+         * Gets the immutable snapshot of the Graph at this version. The snapshot is
+         * assembled from the segments by the first call, in O(V+E), and reused by the
+         * following ones. Its node ids follow the order of the Nodes' ids in the Graph,
+         * which is the order they were first added in.
+         * @return the snapshot of this version.
+         */
+        public GraphSnapshot<T> getSnapshot() {
+            GraphSnapshot<T> snapshot = _snapshot;
+            if (snapshot == null) {
+                synchronized (this) {
+                    snapshot = _snapshot;
+                    if (snapshot == null) {
+                        snapshot = assemble();
+                        _snapshot = snapshot;
+                    }
+                }
+            }
+            return snapshot;
+        }
+
+        /**
+         * Assembles the snapshot of this version by numbering its Nodes in the order of
+         * their Graph ids and translating the targets of their Edges to these numbers.
+         */
+        private GraphSnapshot<T> assemble() {
+            int n = 0;
+            int m = 0;
+            for (Segment<T> segment : _segments) {
+                n += segment._count;
+                m += segment._targets.length;
+            }
+            // snapshot id of each Graph id
+            int[] ids = new int[_segments.size() * _SEGMENT_SIZE];
+            ArrayList<T> data = new ArrayList<T>(n);
+            for (int s = 0; s < _segments.size(); s++) {
+                Segment<T> segment = _segments.get(s);
+                for (int i = 0; i < _SEGMENT_SIZE; i++) {
+                    if (segment._data.get(i) != null) {
+                        ids[s * _SEGMENT_SIZE + i] = data.size();
+                        data.add(segment._data.get(i));
+                    }
+                }
+            }
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            int id = 0;
+            for (Segment<T> segment : _segments) {
+                for (int i = 0; i < _SEGMENT_SIZE; i++) {
+                    if (segment._data.get(i) != null) {
+                        int k = offsets[id];
+                        for (int e = segment._offsets[i]; e < segment._offsets[i + 1]; e++) {
+                            targets[k] = ids[segment._targets[e]];
+                            weights[k] = segment._weights[e];
+                            k++;
+                        }
+                        offsets[++id] = k;
+                    }
+                }
+            }
+            return new GraphSnapshot<T>(data, offsets, targets, weights);
+        }
+    }
+
+    // the Graph modified by the writers, only accessed while holding _writeLock
+    private Graph<T> _graph;
+    private Object _writeLock;
+    // the latest published version
+    private volatile Version<T> _published;
+
+    /**
+     * Constructs a versioned graph starting empty, published as version 0.
+     */
+    public VersionedGraph() {
+        this(new Graph<T>());
+    }
+
+    /**
+     * Constructs a versioned graph starting with the content of the given Graph, published
+     * as version 0. The Graph is taken over: it must not be used by the caller anymore.
+     * @param graph - the initial Graph.
+     */
+    public VersionedGraph(Graph<T> graph) {
+        _graph = graph;
+        _writeLock = new Object();
+        _graph.trackChanges();
+        _published = build(0, new ArrayList<Segment<T>>(), _graph.takeChanges());
+    }
+
+    /**
+     * Pins the latest published version, without waiting for any writer.
+     * @return the latest version.
+     */
+    public Version<T> pin() {
+        return _published;
+    }
+
+    /**
+     * Gets the snapshot of the latest published version, without waiting for any writer.
+     * @return the snapshot of the latest version.
+     */
+    public GraphSnapshot<T> snapshot() {
+        return _published.getSnapshot();
+    }
+
+    /**
+     * Applies a series of modifications to the Graph and publishes a single version
+     * holding all of them. Other writers wait until the update is done, readers keep
+     * on reading the previous version. If the modifications throw, the version holding
+     * the ones applied before the exception is published before it is rethrown. If the
+     * Graph is left unchanged, no new version is published.
+     * <br><u>Note:</u> The Graph given to the modifications must not be kept or used
+     * outside of them.
+     * @param modifications - the modifications applied to the Graph.
+     * @return the latest version, holding the modifications.
+     */
+    public Version<T> update(Consumer<Graph<T>> modifications) {
+        synchronized (_writeLock) {
+            try {
+                modifications.accept(_graph);
+            } finally {
+                publish();
+            }
+            return _published;
+        }
+    }
+
+    /**
+     * Publishes the current state of the Graph as a new version, unless the Graph was not
+     * modified since the last version.
+     */
+    private void publish() {
+        BitSet changes = _graph.takeChanges();
+        if (!changes.isEmpty()) {
+            _published = build(_published.getNumber() + 1, _published._segments, changes);
+        }
+    }
+
+    /**
+     * Builds a version out of the segments of the previous one, rebuilding the segments
+     * holding any of the changed Node ids and adding the segments of new ids.
+     * @param number - the number of the new version.
+     * @param previous - the segments of the previous version.
+     * @param changes - the ids of the Nodes changed since the previous version.
+     * @return the new version.
+     */
+    private Version<T> build(long number, ArrayList<Segment<T>> previous, BitSet changes) {
+        ArrayList<Segment<T>> segments = new ArrayList<Segment<T>>(previous);
+        int count = Math.max(segments.size(), (changes.length() + _SEGMENT_SIZE - 1) / _SEGMENT_SIZE);
+        int built = 0;
+        for (int s = 0; s < count; s++) {
+            int first = s * _SEGMENT_SIZE;
+            if (s == segments.size()) {
+                segments.add(new Segment<T>(_graph, first));
+                built++;
+            } else {
+                int changed = changes.nextSetBit(first);
+                if (changed >= 0 && changed < first + _SEGMENT_SIZE) {
+                    segments.set(s, new Segment<T>(_graph, first));
+                    built++;
+                }
+            }
+        }
+        return new Version<T>(number, segments, built);
+    }
+
+    /**
+     * Adds a new Node containing the data and publishes the new version.
+     * @param data - the data contained in the new Node.
+     * @throws RuntimeException if the Graph already contains a Node for the given data.
+     * @see Graph#addNode(Comparable)
+     */
+    public void addNode(T data) {
+        update(g -> g.addNode(data));
+    }
+
+    /**
+     * Adds a new directed Edge of weight 1 and publishes the new version.
+     * @param fromKey - data or label of the node where the Edge is starting.
+     * @param toKey - data or label of the node where the Edge is ending.
+     * @throws RuntimeException if either of the two Nodes are not present in the Graph.
+     * @see Graph#addEdge(Object, Object)
+     */
+    public void addEdge(Object fromKey, Object toKey) {
+        update(g -> g.addEdge(fromKey, toKey));
+    }
+
+    /**
+     * Adds a new directed Edge of the given weight and publishes the new version.
+     * @param fromKey - data or label of the node where the Edge is starting.
+     * @param toKey - data or label of the node where the Edge is ending.
+     * @param weight - the weight (length) of the Edge.
+     * @throws RuntimeException if either of the two Nodes are not present in the Graph
+     * or if the weight is negative.
+     * @see Graph#addEdge(Object, Object, int)
+     */
+    public void addEdge(Object fromKey, Object toKey, int weight) {
+        update(g -> g.addEdge(fromKey, toKey, weight));
+    }
+
+    /**
+     * Removes the Node identified by the key and publishes the new version.
+     * @param key - node data or label.
+     * @throws RuntimeException if the Node does not exist in the Graph.
+     * @see Graph#removeNode(Object)
+     */
+    public void removeNode(Object key) {
+        update(g -> g.removeNode(key));
+    }
+
+    /**
+     * Removes the Nodes identified by the keys and publishes the new version.
+     * @param keys - the data or labels of the Nodes to be removed.
+     * @throws RuntimeException if any of the Nodes does not exist in the Graph.
+     * @see Graph#removeNodes(Collection)
+     */
+    public void removeNodes(Collection<?> keys) {
+        update(g -> g.removeNodes(keys));
+    }
+
+    /**
+     * Removes the directed Edge linking the two Nodes and publishes the new version.
+     * @param fromKey - data or label of the node at the starting point of the Edge.
+     * @param toKey - data or label of the node at the ending point of the Edge.
+     * @throws RuntimeException if either of the two Nodes are not present in the Graph.
+     * @see Graph#removeEdge(Object, Object)
+     */
+    public void removeEdge(Object fromKey, Object toKey) {
+        update(g -> g.removeEdge(fromKey, toKey));
+    }
+}
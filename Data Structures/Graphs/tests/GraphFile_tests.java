@@ -0,0 +1,127 @@
+package Graphs.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import Graphs.main.Graph;
+import Graphs.main.GraphFile;
+import Graphs.main.GraphSnapshot;
+
+public class GraphFile_tests extends TestsCore {
+
+    /**
+     * Unit test saving graphs in the binary format and loading them back,
+     * either as snapshots or as Graphs.
+     */
+    @Test
+    public void test_saveLoad() throws IOException {
+        Path path = Files.createTempFile("graph", ".bin");
+        try {
+            Graph<String> g = readGraph("/Graphs/data/medium2.txt");
+            g.addNode("W : last \u00e9t\u00e9");
+            g.addEdge("W", "A", 7);
+            g.save(path);
+            GraphSnapshot<String> s = GraphFile.loadSnapshot(path, t -> t);
+            assertEquals(g.size(), s.size());
+            assertEquals(g.snapshot().edgeCount(), s.edgeCount());
+            assertEquals(g.getInDegrees(), s.getInDegrees());
+            assertEquals(g.dijkstra("W"), s.dijkstra("W"));
+            assertEquals(g.getStronglyConnectedComponents(), s.getStronglyConnectedComponents());
+
+            Graph<String> loaded = GraphFile.load(path, t -> t);
+            assertEquals(g.toString(), loaded.toString());
+            assertEquals(g.dijkstra("W"), loaded.dijkstra("W"));
+
+            Graph<Integer> chain = new Graph<Integer>();
+            for (int i = 0; i < 300000; i++) {
+                chain.addNode(i);
+                if (i > 0) {
+                    chain.addEdge(i - 1, i, i % 5);
+                }
+            }
+            chain.save(path);
+            GraphSnapshot<Integer> cs = GraphFile.loadSnapshot(path, Integer::parseInt);
+            assertEquals(300000, cs.size());
+            assertEquals(chain.dijkstra(0), cs.dijkstra(0));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Unit test verifying files which are not graph files are rejected.
+     */
+    @Test
+    public void test_invalidFile() throws IOException {
+        Path path = Files.createTempFile("graph", ".bin");
+        try {
+            Files.write(path, "A > B\nB > A\nnot a graph file".getBytes());
+            GraphFile.loadSnapshot(path, t -> t);
+            fail("Loading a text file should throw");
+        } catch (RuntimeException e) {
+            assertEquals("Invalid graph file!", e.getMessage());
+        } finally {
+            Files.delete(path);
+        }
+        assertTrue(GraphFile.VERSION > 0);
+    }
+
+    /**
+     * Unit test verifying graph files with a corrupt node count or string size, or a negative
+     * edge weight are rejected.
+     */
+    @Test
+    public void test_corruptFile() throws IOException {
+        Path path = Files.createTempFile("graph", ".bin");
+        try {
+            Graph<String> g = readGraph("/Graphs/data/medium2.txt");
+            g.save(path);
+            byte[] bytes = Files.readAllBytes(path);
+
+            // node count (third header int) set to Integer.MAX_VALUE
+            byte[] corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(8, Integer.MAX_VALUE);
+            Files.write(path, corrupt);
+            try {
+                GraphFile.loadSnapshot(path, t -> t);
+                fail("Loading a file with an invalid node count should throw");
+            } catch (RuntimeException e) {
+                assertEquals("Invalid graph file!", e.getMessage());
+            }
+
+            // string bytes (fifth header int) set close to Integer.MAX_VALUE, such that
+            // rounding them up to a multiple of 4 overflows an int
+            corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(16, Integer.MAX_VALUE - 1);
+            Files.write(path, corrupt);
+            try {
+                GraphFile.loadSnapshot(path, t -> t);
+                fail("Loading a file with an invalid string size should throw");
+            } catch (RuntimeException e) {
+                assertEquals("Invalid graph file!", e.getMessage());
+            }
+
+            // last edge weight (last int of the file) set to -1
+            corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(corrupt.length - 4, -1);
+            Files.write(path, corrupt);
+            try {
+                GraphFile.load(path, t -> t);
+                fail("Loading a file with a negative edge weight should throw");
+            } catch (RuntimeException e) {
+                assertEquals("Invalid graph file!", e.getMessage());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
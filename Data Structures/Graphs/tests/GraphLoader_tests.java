@@ -0,0 +1,82 @@
+package Graphs.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+import Graphs.main.Graph;
+import Graphs.main.GraphLoader;
+
+public class GraphLoader_tests extends TestsCore {
+
+    private Path getPath(String graphFile) throws URISyntaxException {
+        return Paths.get(this.getClass().getResource(graphFile).toURI());
+    }
+
+    /**
+     * Unit test loading the graph data files through the streaming loader,
+     * verifying they result in the same graphs as parsing them line by line.
+     */
+    @Test
+    public void test_loadDataFiles() throws IOException, URISyntaxException {
+        String[] files = {
+            "basic0.txt", "basic1.txt", "basic2.txt", "basic3.txt", "basic4.txt",
+            "complex1.txt", "eulerian1.txt", "eulerian2.txt", "eulerian3.txt",
+            "eulerian4.txt", "eulerian5.txt", "medium1.txt", "medium2.txt"
+        };
+        GraphLoader<String> loader = new GraphLoader<String>(s -> s);
+        for (String file : files) {
+            String graphFile = "/Graphs/data/" + file;
+            Graph<String> g = loader.load(getPath(graphFile));
+            assertSameGraph(graphFile, g);
+            assertEquals(readGraph(graphFile).toString(), g.toString());
+        }
+
+        Graph<Integer> g = new GraphLoader<Integer>(Integer::parseInt).load(getPath("/Graphs/data/basic1.txt"));
+        assertEquals(readGraph("/Graphs/data/basic1.txt", Integer.class).toString(), g.toString());
+    }
+
+    /**
+     * Unit test loading a large generated file, spanning several buffers
+     * and holding a line longer than a buffer.
+     */
+    @Test
+    public void test_loadLarge() throws IOException {
+        Path path = Files.createTempFile("graph", ".txt");
+        try {
+            int size = 100000;
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                // node 0 links to all the others, on a line of about 600KB
+                writer.write("0 : hub >");
+                for (int i = 1; i < size; i++) {
+                    writer.write(" " + i);
+                }
+                writer.write("\r\n");
+                for (int i = 1; i < size; i++) {
+                    writer.write(i + " : node " + i + " > " + (i + 1) % size + " missing\r\n");
+                }
+                writer.write("\r\n");
+            }
+            GraphLoader<String> loader = new GraphLoader<String>(s -> s);
+            Graph<String> g = loader.load(path);
+            assertEquals(size, g.size());
+            assertEquals(size, loader.getLineCount());
+            assertEquals(size - 2, g.getInDegreeHistogram().getCount(2));
+            assertEquals(size - 1, g.getOutDegreeHistogram().getMaxDegree());
+            assertTrue(g.hasPath("99999", "1"));
+            assertTrue(loader.getLinesPerSecond() > 0);
+            assertTrue(loader.getReport().startsWith(size + " lines in "));
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package Graphs.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import Graphs.main.Graph;
+import Graphs.main.GraphSnapshot;
+import Graphs.main.ReachabilityIndex;
+import Graphs.main.VersionedGraph;
+
+public class GraphSnapshot_tests extends TestsCore {
+
+    /**
+     * Unit test for taking a snapshot of a Graph and verifying the
+     * snapshot is reused until the Graph is modified.
+     * @throws FileNotFoundException
+     */
+    @Test
+    public void test_snapshot() throws FileNotFoundException {
+        Graph<String> g = readGraph("/Graphs/data/medium1.txt");
+        GraphSnapshot<String> s = g.snapshot();
+        assertEquals(g.size(), s.size());
+        assertSame(s, g.snapshot());
+        for (int id = 0; id < s.size(); id++) {
+            assertEquals(id, s.getId(s.getData(id)));
+        }
+        assertEquals(-1, s.getId("Q"));
+
+        // modifying the graph discards the snapshot, the old one stays unchanged
+        g.addNode("Q");
+        assertEquals(s.size() + 1, g.snapshot().size());
+        assertEquals(-1, s.getId("Q"));
+    }
+
+    /**
+     * Unit test verifying the algorithms running on the snapshot give
+     * the same results as the ones running on the Graph.
+     * @throws FileNotFoundException
+     */
+    @Test
+    public void test_snapshotAlgorithms() throws FileNotFoundException {
+        GraphSnapshot<Character> s = readGraph("/Graphs/data/basic3.txt", Character.class).snapshot();
+        assertFalse(s.isConnected());
+        assertEquals(2, s.countPartitions());
+
+        GraphSnapshot<String> s1 = readGraph("/Graphs/data/medium1.txt").snapshot();
+        assertEquals("{0=[E], 1=[F], 2=[B, C], 3=[A, D]}", s1.getOutDegrees().toString());
+        assertEquals("{0=[A], 1=[D], 2=[B, F], 3=[C, E]}", s1.getInDegrees().toString());
+        assertEquals("{0=[A], 1=[D], 2=[B], 3=[C], 4=[F], 5=[E]}", s1.topoSort().toString());
+        assertTrue(s1.hasPath("A", "E"));
+        assertFalse(s1.hasPath("E", "A"));
+
+        GraphSnapshot<String> s2 = readGraph("/Graphs/data/medium2.txt").snapshot();
+        assertEquals(3, s2.countPartitions());
+        assertEquals("{A=-1, B=-1, C=2, D=3, E=0, F=1, G=1, X=-1, Y=-1, Z=-1}", s2.dijkstra("E").toString());
+        assertNull(s2.dijkstra("Q"));
+
+        assertNull(readGraph("/Graphs/data/basic1.txt", Integer.class).snapshot().topoSort());
+    }
+
+    /**
+     * Unit test for grouping the nodes of a Graph by their strongly connected
+     * components and for the checks answered from these components.
+     * @throws FileNotFoundException
+     */
+    @Test
+    public void test_stronglyConnectedComponents() throws FileNotFoundException {
+        Graph<Character> g = readGraph("/Graphs/data/basic3.txt", Character.class);
+        assertEquals("{0=[A, B, C], 1=[D, E, F]}", g.getStronglyConnectedComponents().toString());
+
+        // B --> E links the two cycles in one partition, but not in one component
+        g.addEdge('B', 'E');
+        assertTrue(g.isConnected());
+        assertEquals(1, g.countPartitions());
+        assertEquals(2, g.getStronglyConnectedComponents().size());
+
+        // D --> C closes the loop, all nodes are in the same component
+        g.addEdge('D', 'C');
+        assertEquals("{0=[A, B, C, D, E, F]}", g.getStronglyConnectedComponents().toString());
+
+        // a chain has one component per node, numbered in reverse topological order
+        Graph<Integer> chain = new Graph<Integer>();
+        for (int i = 0; i < 100000; i++) {
+            chain.addNode(i);
+            if (i > 0) {
+                chain.addEdge(i - 1, i);
+            }
+        }
+        GraphSnapshot<Integer> s = chain.snapshot();
+        int[] ids = s.getStrongComponentIds();
+        assertEquals(chain.size(), chain.getStronglyConnectedComponents().size());
+        assertTrue(ids[s.getId(0)] > ids[s.getId(1)]);
+        assertFalse(s.isStronglyConnected());
+    }
+
+    /**
+     * Unit test for running read-only queries on the same Graph from several
+     * threads at once, without altering the state of the Graph's nodes.
+     * @throws Exception
+     */
+    @Test
+    public void test_concurrentQueries() throws Exception {
+        Graph<String> g = readGraph("/Graphs/data/medium2.txt");
+        AtomicInteger errors = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    if (!g.hasPath("A", "D") || g.hasPath("D", "A") || !g.hasPath("X", "Y")
+                            || g.getCycle("A") != null || g.dijkstra("E").get("D") != 3) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, errors.get());
+        assertTrue(g.checkState(null));
+    }
+
+    /**
+     * Unit test verifying the reachability index answers the same as a traversal,
+     * both for small graphs (indexed by bitsets) and for large ones (indexed by intervals).
+     * @throws FileNotFoundException
+     */
+    @Test
+    public void test_reachabilityIndex() throws FileNotFoundException {
+        Graph<String> g = readGraph("/Graphs/data/medium2.txt");
+        g.setReachabilityIndexed(true);
+        assertTrue(g.hasPath("A", "D"));
+        assertFalse(g.hasPath("D", "A"));
+        assertFalse(g.hasPath("A", "X"));
+        // modifying the graph discards the index
+        g.addEdge("D", "X");
+        assertTrue(g.hasPath("A", "Y"));
+
+        Random random = new Random(7);
+        for (int size : new int[] {500, 12000}) {
+            Graph<Integer> rg = new Graph<Integer>();
+            for (int i = 0; i < size; i++) {
+                rg.addNode(i);
+            }
+            for (int i = 0; i < size * 11 / 10; i++) {
+                rg.addEdge(random.nextInt(size), random.nextInt(size));
+            }
+            GraphSnapshot<Integer> s = rg.snapshot();
+            ReachabilityIndex index = s.getReachabilityIndex();
+            for (int q = 0; q < 2000; q++) {
+                int from = random.nextInt(size);
+                int to = random.nextInt(size);
+                assertEquals(s.hasPath(s.getData(from), s.getData(to)), index.hasPath(from, to));
+            }
+        }
+    }
+
+    /**
+     * Unit test for readers pinning the versions of a graph while a writer modifies it:
+     * each pinned version is consistent with its number, and stays unchanged.
+     */
+    @Test
+    public void test_versionedGraph() throws Exception {
+        // version k holds the chain 0 --> 1 --> ... --> k
+        VersionedGraph<Integer> vg = new VersionedGraph<Integer>();
+        vg.addNode(0);
+        assertEquals(1, vg.pin().getNumber());
+        AtomicInteger errors = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= 500; i++) {
+                final int next = i;
+                vg.update(g -> {
+                    g.addNode(next);
+                    g.addEdge(next - 1, next);
+                });
+            }
+        });
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                long last = 0;
+                while (last < 501) {
+                    VersionedGraph.Version<Integer> version = vg.pin();
+                    GraphSnapshot<Integer> s = version.getSnapshot();
+                    int k = (int)version.getNumber() - 1;
+                    if (version.getNumber() < last || s.size() != k + 1 || s.edgeCount() != k
+                            || !s.hasPath(0, k) || !s.isConnected()) {
+                        errors.incrementAndGet();
+                    }
+                    last = version.getNumber();
+                }
+            });
+            readers[t].start();
+        }
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(0, errors.get());
+
+        // failing or empty updates do not publish new versions
+        GraphSnapshot<Integer> pinned = vg.snapshot();
+        try {
+            vg.addNode(0);
+        } catch (RuntimeException e) {
+        }
+        vg.update(g -> {});
+        assertSame(pinned, vg.snapshot());
+        vg.removeNode(500);
+        assertEquals(502, vg.pin().getNumber());
+        assertEquals(501, pinned.size());
+        assertEquals(500, vg.snapshot().size());
+    }
+
+    /**
+     * Unit test verifying a version rebuilds only the segments holding the Nodes
+     * changed since the previous version, and shares the other ones.
+     */
+    @Test
+    public void test_versionedGraphSegments() {
+        Graph<Integer> g = new Graph<Integer>();
+        for (int i = 0; i < 10000; i++) {
+            g.addNode(i);
+            if (i > 0) {
+                g.addEdge(i - 1, i);
+            }
+        }
+        VersionedGraph<Integer> vg = new VersionedGraph<Integer>(g);
+        VersionedGraph.Version<Integer> first = vg.pin();
+        assertTrue(first.getSegmentCount() > 10);
+        assertEquals(first.getSegmentCount(), first.getBuiltSegmentCount());
+
+        // a single edge rebuilds the segment of its origin only
+        vg.addEdge(9999, 0);
+        VersionedGraph.Version<Integer> second = vg.pin();
+        assertEquals(first.getSegmentCount(), second.getSegmentCount());
+        assertEquals(1, second.getBuiltSegmentCount());
+        assertEquals(9999, first.getSnapshot().edgeCount());
+        assertEquals(10000, second.getSnapshot().edgeCount());
+        assertFalse(first.getSnapshot().isStronglyConnected());
+        assertTrue(second.getSnapshot().isStronglyConnected());
+
+        // removing a Node rebuilds its segment and the ones of the Nodes linking to it
+        vg.removeNode(0);
+        VersionedGraph.Version<Integer> third = vg.pin();
+        assertEquals(2, third.getBuiltSegmentCount());
+        assertEquals(9999, third.getSnapshot().size());
+        assertEquals(9998, third.getSnapshot().edgeCount());
+        assertEquals(-1, third.getSnapshot().getId(0));
+        assertTrue(third.getSnapshot().hasPath(1, 9999));
+        assertFalse(third.getSnapshot().hasPath(9999, 1));
+    }
+}
@@ -0,0 +1,555 @@
+package Graphs.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import Graphs.main.BitMatrix;
+import Graphs.main.Graph;
+import Graphs.main.GraphExporter;
+import Graphs.main.GraphGenerators;
+import Graphs.main.GraphSnapshot;
+import Graphs.main.Node;
+import Graphs.main.SparseMatrix;
+
+public class Graphs4_tests extends TestsCore {
+
+    /**
+     * Builds a chain graph 0 --> 1 --> ... --> (size-1).
+     * @param size - number of nodes in the chain.
+     * @return the chain graph.
+     */
+    private Graph<Integer> buildChain(int size) {
+        Graph<Integer> g = new Graph<Integer>();
+        for (int i = 0; i < size; i++) {
+            g.addNode(i);
+            if (i > 0) {
+                g.addEdge(i - 1, i);
+            }
+        }
+        return g;
+    }
+
+    //____ LARGE TOPOLOGICAL SORT ____
+    /**
+     * The topological sort of a long chain places each node on its own position,
+     * and closing the chain into a loop makes the graph cyclic.
+     */
+    @Test
+    public void test_topoSortLarge() {
+        Graph<Integer> g = buildChain(200000);
+        TreeMap<Integer, TreeSet<Integer>> map = g.topoSort();
+        assertEquals(200000, map.size());
+        assertEquals("[0]", map.firstEntry().getValue().toString());
+        assertEquals("[199999]", map.lastEntry().getValue().toString());
+        assertTrue(g.isDAGraph());
+
+        g.addEdge(199999, 100000);
+        assertNull(g.topoSort());
+        assertFalse(g.isDAGraph());
+    }
+
+    //____ WEIGHTED DIJKSTRA ____
+    /**
+     * With weighted edges, the Dijkstra distance is the smallest sum of the weights
+     * along a path, which may follow more edges than the path with fewest edges:
+     * <pre>
+     * A --1--> B --1--> C --1--> D
+     *  \_____________5_________/^
+     * </pre>
+     */
+    @Test
+    public void test_weightedDijkstra() {
+        Graph<String> g = new Graph<String>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addNode("D");
+        g.addNode("E");
+        g.addEdge("A", "B", 1);
+        g.addEdge("B", "C", 1);
+        g.addEdge("C", "D", 1);
+        g.addEdge("A", "D", 5);
+        assertEquals("{A=0, B=1, C=2, D=3, E=-1}", g.dijkstra("A").toString());
+        assertEquals("{A=A, B=A, C=B, D=C}", g.dijkstraTree("A").toString());
+
+        // making the direct edge shorter changes the tree
+        g.addEdge("A", "D", 2);
+        assertEquals("{A=0, B=1, C=2, D=2, E=-1}", g.dijkstra("A").toString());
+        assertEquals("{A=A, B=A, C=B, D=A}", g.dijkstraTree("A").toString());
+        assertNull(g.dijkstra("Q"));
+
+        // long chains do not overflow the stack
+        Graph<Integer> chain = buildChain(200000);
+        assertEquals(199999, (int)chain.dijkstra(0).get(199999));
+    }
+
+    //____ DEEP TRAVERSALS ____
+    /**
+     * Paths and cycles along a 100k nodes chain are found without
+     * running out of stack space.
+     */
+    @Test
+    public void test_deepTraversals() {
+        Graph<Integer> g = buildChain(100000);
+        assertTrue(g.hasPath(0, 99999));
+        assertFalse(g.hasPath(99999, 0));
+        assertNull(g.getCycle(0));
+        assertTrue(g.isConnected());
+
+        g.addEdge(99999, 0);
+        assertTrue(g.hasPath(99999, 0));
+        ArrayList<Integer> cycle = g.getCycle(0);
+        assertEquals(100000, cycle.size());
+        assertEquals(1, (int)cycle.get(0));
+        assertEquals(0, (int)cycle.get(99999));
+        assertEquals(100000, g.getEulerianCircuit().size() - 1);
+    }
+
+    //____ INCREMENTAL PARTITIONS ____
+    /**
+     * The partition count follows the Nodes and Edges as they are added,
+     * and is corrected after Edges and Nodes are removed.
+     */
+    @Test
+    public void test_incrementalPartitions() {
+        Graph<Integer> g = new Graph<Integer>();
+        for (int i = 0; i < 10; i++) {
+            g.addNode(i);
+            assertEquals(i + 1, g.countPartitions());
+        }
+        for (int i = 1; i < 10; i++) {
+            g.addEdge(i, i - 1);
+            assertEquals(10 - i, g.countPartitions());
+        }
+        assertTrue(g.inSamePartition(0, 9));
+
+        // cutting the chain in the middle splits it in two partitions
+        g.removeEdge(5, 4);
+        assertEquals(2, g.countPartitions());
+        assertFalse(g.inSamePartition(0, 9));
+        assertTrue(g.inSamePartition(5, 9));
+
+        // removing the node at the end of one partition keeps the count
+        g.removeNode(9);
+        assertEquals(2, g.countPartitions());
+        g.removeNode(0);
+        g.addNode(0);
+        assertEquals(3, g.countPartitions());
+        g.addEdge(0, 8);
+        assertEquals(2, g.countPartitions());
+        assertEquals(g.snapshot().countPartitions(), g.countPartitions());
+    }
+
+    //____ LARGE EULERIAN CIRCUIT ____
+    /**
+     * The eulerian circuit of a graph made of many overlapping cycles
+     * traverses each edge exactly once and ends where it started.
+     */
+    @Test
+    public void test_eulerianCircuitLarge() {
+        // cycles i --> i+k --> i+2k --> ... (mod n), for k = 1, 2, 3
+        int n = 30000;
+        Graph<Integer> g = new Graph<Integer>();
+        for (int i = 0; i < n; i++) {
+            g.addNode(i);
+        }
+        Set<String> edges = new HashSet<String>();
+        for (int k = 1; k <= 3; k++) {
+            for (int i = 0; i < n; i++) {
+                g.addEdge(i, (i + k) % n);
+                edges.add(i + ">" + (i + k) % n);
+            }
+        }
+        assertTrue(g.isEulerian());
+        ArrayList<Integer> circuit = g.getEulerianCircuit();
+        assertEquals(3 * n + 1, circuit.size());
+        assertEquals(circuit.get(0), circuit.get(circuit.size() - 1));
+        for (int i = 1; i < circuit.size(); i++) {
+            assertTrue(edges.remove(circuit.get(i - 1) + ">" + circuit.get(i)));
+        }
+        assertTrue(edges.isEmpty());
+    }
+
+    //____ DEGREE HISTOGRAMS ____
+    /**
+     * The degree histograms follow the Edges as they are added and removed,
+     * and match the degree maps of the Graph.
+     */
+    @Test
+    public void test_degreeHistograms() {
+        Graph<String> g = new Graph<String>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        assertEquals("{0=3}", g.getInDegreeHistogram().toString());
+        g.addEdge("A", "B");
+        g.addEdge("A", "C");
+        g.addEdge("B", "C");
+        g.addEdge("A", "C");
+        assertEquals("{0=1, 1=1, 2=1}", g.getInDegreeHistogram().toString());
+        assertEquals("{0=1, 1=1, 2=1}", g.getOutDegreeHistogram().toString());
+        assertEquals(2, g.getOutDegreeHistogram().getMaxDegree());
+        assertEquals("{0=[A], 1=[B], 2=[C]}", g.getInDegrees().toString());
+
+        g.removeEdge("A", "C");
+        assertEquals("{0=1, 1=2}", g.getInDegreeHistogram().toString());
+        assertEquals(1, g.getOutDegreeHistogram().getMaxDegree());
+        g.removeNode("B");
+        assertEquals("{0=2}", g.getInDegreeHistogram().toString());
+        assertEquals("{0=2}", g.getOutDegreeHistogram().toString());
+        assertEquals(2, g.getInDegreeHistogram().size());
+        assertEquals(0, g.getInDegreeHistogram().getMaxDegree());
+
+        // a hub alone at the highest degree moves up and down by one Edge at a time
+        Graph<Integer> star = new Graph<Integer>();
+        for (int i = 0; i <= 1000; i++) {
+            star.addNode(i);
+        }
+        for (int i = 1; i <= 1000; i++) {
+            star.addEdge(0, i);
+            assertEquals(i, star.getOutDegreeHistogram().getMaxDegree());
+        }
+        for (int round = 0; round < 100; round++) {
+            star.removeEdge(0, 1000);
+            assertEquals(999, star.getOutDegreeHistogram().getMaxDegree());
+            assertEquals(1, star.getOutDegreeHistogram().getCount(999));
+            star.addEdge(0, 1000);
+            assertEquals(1000, star.getOutDegreeHistogram().getMaxDegree());
+            assertEquals(0, star.getOutDegreeHistogram().getCount(999));
+        }
+        for (int i = 1000; i > 1; i--) {
+            star.removeEdge(0, i);
+            assertEquals(i - 1, star.getOutDegreeHistogram().getMaxDegree());
+        }
+        star.removeEdge(0, 1);
+        assertEquals(0, star.getOutDegreeHistogram().getMaxDegree());
+        assertEquals("{0=1001}", star.getOutDegreeHistogram().toString());
+        assertEquals("{0=1001}", star.getInDegreeHistogram().toString());
+    }
+
+    //____ BULK NODE REMOVAL ____
+    /**
+     * Removing Nodes in bulk unlinks the remaining Nodes from the removed ones,
+     * and leaves the Graph unchanged if any of the Nodes is missing or given twice.
+     */
+    @Test
+    public void test_removeNodes() {
+        Graph<Integer> g = buildChain(100000);
+        g.addEdge(99999, 0);
+        ArrayList<Integer> keys = new ArrayList<Integer>();
+        for (int i = 1; i < 100000; i += 2) {
+            keys.add(i);
+        }
+        assertEquals(keys, g.removeNodes(keys));
+        assertEquals(50000, g.size());
+        assertEquals(50000, g.countPartitions());
+        assertEquals("{0=50000}", g.getInDegreeHistogram().toString());
+        assertEquals("{0=50000}", g.getOutDegreeHistogram().toString());
+
+        g.addEdge(0, 2);
+        g.addEdge(2, 4);
+        try {
+            g.removeNodes(Arrays.asList(2, 3));
+            fail("Removing a missing Node should throw");
+        } catch (RuntimeException e) {
+        }
+        assertEquals(50000, g.size());
+        // the same Node given by its data and by its label
+        try {
+            g.removeNodes(Arrays.asList(4, "4"));
+            fail("Removing a Node twice should throw");
+        } catch (RuntimeException e) {
+        }
+        assertEquals(50000, g.size());
+        assertTrue(g.hasPath(0, 4));
+        assertEquals((Integer)2, g.removeNode(2));
+        assertFalse(g.hasPath(0, 4));
+        assertEquals("0 > ", g.toString().substring(0, 4));
+    }
+
+    //____ NODE LABELS ____
+    /**
+     * Labels are parsed without regular expressions, with the same result as
+     * splitting the data string around the first " : " separator.
+     */
+    @Test
+    public void test_labels() {
+        String[] contents = {
+            "A", "A : data", "A  :\tdata : more", "A:B", "A :B", "A: B : C",
+            "x : ", " : x", "a\n:\nb", "::", "a :: b : c", "key : : value"
+        };
+        for (String content : contents) {
+            assertEquals(content.split("\\s+:\\s+")[0], Node.getLabel(content));
+        }
+
+        // nodes are found by their label after being removed and added again
+        Graph<String> g = new Graph<String>();
+        g.addNode("A : first");
+        g.addNode("B : second");
+        g.addEdge("A", "B");
+        g.removeNode("A");
+        g.addNode("A : third");
+        g.addEdge("B", "A : any");
+        assertEquals("A : third > \nB : second > A", g.toString());
+        assertTrue(g.hasPath("B", "A"));
+    }
+
+    //____ STREAMING EXPORT ____
+    /**
+     * The Graph is written to an output in its text, DOT and edge list forms,
+     * the text form being identical to toString().
+     */
+    @Test
+    public void test_export() throws IOException {
+        Graph<String> g = new Graph<String>();
+        g.addNode("A : first");
+        g.addNode("B : \"second\"");
+        g.addNode("C");
+        g.addEdge("A", "B");
+        g.addEdge("B", "C", 4);
+        StringWriter text = new StringWriter();
+        g.writeTo(text);
+        assertEquals("A : first > B\nB : \"second\" > C\nC > ", text.toString());
+        assertEquals(g.toString(), text.toString());
+
+        StringBuilder dot = new StringBuilder();
+        GraphExporter.writeDot(g, dot);
+        assertEquals("digraph {\n"
+            + "  \"A\" [label=\"A : first\"];\n"
+            + "  \"B\" [label=\"B : \\\"second\\\"\"];\n"
+            + "  \"C\" [label=\"C\"];\n"
+            + "  \"A\" -> \"B\" [label=1];\n"
+            + "  \"B\" -> \"C\" [label=4];\n"
+            + "}\n", dot.toString());
+
+        StringBuilder edges = new StringBuilder();
+        GraphExporter.writeEdgeList(g, edges);
+        assertEquals("A B 1\nB C 4\n", edges.toString());
+
+        // large graphs are written in linear time
+        Graph<Integer> chain = buildChain(200000);
+        StringBuilder large = new StringBuilder();
+        chain.writeTo(large);
+        assertEquals(chain.toString(), large.toString());
+    }
+
+    //____ BIT AND SPARSE MATRICES ____
+    /**
+     * The bit and sparse adjacency matrices hold the same entries as the dense one,
+     * and powers of the bit matrix give the reachability in k steps.
+     */
+    @Test
+    public void test_adjacencyMatrices() throws FileNotFoundException {
+        Graph<String> g = readGraph("/Graphs/data/medium1.txt");
+        int[][] dense = g.getAdjacencyMatrix();
+        BitMatrix bits = g.getAdjacencyBitMatrix();
+        SparseMatrix sparse = g.getSparseAdjacencyMatrix();
+        int entries = 0;
+        for (int i = 0; i < dense.length; i++) {
+            for (int j = 0; j < dense.length; j++) {
+                assertEquals(dense[i][j] == 1, bits.get(i, j));
+                assertEquals(dense[i][j], sparse.get(i, j));
+                assertEquals(dense[i][j] == 1, sparse.contains(i, j));
+                entries += dense[i][j];
+            }
+        }
+        assertEquals(entries, bits.getCount());
+        assertEquals(entries, sparse.getEntryCount());
+        assertEquals(bits, sparse.toBitMatrix());
+        int[] rows = sparse.getRows();
+        int[] columns = sparse.getColumns();
+        for (int k = 0; k < entries; k++) {
+            assertTrue(bits.get(rows[k], columns[k]));
+        }
+
+        // an Edge of weight 0 is a stored entry of value 0
+        Graph<Integer> zero = new Graph<Integer>();
+        zero.addNode(1);
+        zero.addNode(2);
+        zero.addEdge(1, 2, 0);
+        SparseMatrix z = zero.getSparseAdjacencyMatrix();
+        assertEquals(1, z.getEntryCount());
+        assertEquals(0, z.get(0, 1));
+        assertTrue(z.contains(0, 1));
+        assertFalse(z.contains(1, 0));
+
+        // on a chain, k steps reach the next k nodes
+        Graph<Integer> chain = new Graph<Integer>();
+        for (int i = 0; i < 200; i++) {
+            chain.addNode(1000 + i);
+            if (i > 0) {
+                chain.addEdge(1000 + i - 1, 1000 + i);
+            }
+        }
+        BitMatrix a = chain.getAdjacencyBitMatrix();
+        assertEquals("[3]", Arrays.toString(a.power(3).getRow(0)));
+        assertEquals("[100, 101, 102, 103, 104, 105]", Arrays.toString(a.reachableWithin(5).getRow(100)));
+        assertEquals(200 * 201 / 2, a.reachableWithin(199).getCount());
+        assertEquals(a.power(2), a.multiply(a));
+        long[] frontier = new long[4];
+        frontier[0] = 1L << 63;
+        assertEquals(1L, a.step(frontier)[1]);
+    }
+
+    //____ PARALLEL BREADTH-FIRST DISTANCES ____
+    /**
+     * The parallel breadth-first distances match the Dijkstra distances of graphs
+     * with unit weights, whether the search runs top-down, bottom-up or both.
+     */
+    @Test
+    public void test_breadthFirstDistances() {
+        Random random = new Random(17);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // sparse (top-down) to dense (bottom-up) random graphs
+            for (int edgesPerNode : new int[] {1, 3, 20}) {
+                Graph<Integer> g = new Graph<Integer>();
+                int n = 5000;
+                for (int i = 0; i < n; i++) {
+                    g.addNode(i);
+                }
+                for (int e = 0; e < n * edgesPerNode; e++) {
+                    g.addEdge(random.nextInt(n), random.nextInt(n));
+                }
+                for (int source = 0; source < 3; source++) {
+                    assertEquals(g.dijkstra(source), g.snapshot().breadthFirstDistances(source, pool));
+                }
+                assertEquals(g.dijkstra(0), g.breadthFirstDistances(0));
+            }
+            Graph<Integer> chain = buildChain(100000);
+            assertEquals(chain.dijkstra(0), chain.snapshot().breadthFirstDistances(0, pool));
+            assertNull(chain.breadthFirstDistances(-1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    //____ MULTI-SOURCE DISTANCES ____
+    /**
+     * The rows streamed by the multi-source distances match the single-source
+     * Dijkstra distances, and give eccentricities, diameter and closeness.
+     */
+    @Test
+    public void test_multiSourceDistances() {
+        Random random = new Random(5);
+        Graph<Integer> g = new Graph<Integer>();
+        int n = 300;
+        for (int i = 0; i < n; i++) {
+            g.addNode(i);
+        }
+        for (int e = 0; e < 3 * n; e++) {
+            g.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+        }
+        GraphSnapshot<Integer> s = g.snapshot();
+        int[][] matrix = new int[n][];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] sources = {0, 7, 42, 299};
+            s.forEachDistanceRow(sources, pool, (source, distances) -> {
+                matrix[source] = distances.clone();
+            });
+            for (int source : sources) {
+                TreeMap<Integer, Integer> expected = g.dijkstra(s.getData(source));
+                for (int id = 0; id < n; id++) {
+                    assertEquals(expected.get(s.getData(id)).intValue(), matrix[source][id]);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // a unit-weight chain 0 --> 1 --> 2 --> 3
+        Graph<Integer> chain = buildChain(4);
+        assertEquals("{0=3, 1=2, 2=1, 3=0}", chain.getEccentricities().toString());
+        assertEquals(3, chain.getDiameter());
+        assertEquals("{0=0.5, 1=0.6666666666666666, 2=1.0, 3=0.0}",
+            chain.getClosenessCentralities().toString());
+
+        // nodes reached over edges of weight 0 count at distance 0: 0 --(0)--> 1 --(2)--> 2
+        Graph<Integer> zero = new Graph<Integer>();
+        zero.addNode(0);
+        zero.addNode(1);
+        zero.addNode(2);
+        zero.addEdge(0, 1, 0);
+        zero.addEdge(1, 2, 2);
+        assertEquals("{0=2, 1=2, 2=0}", zero.getEccentricities().toString());
+        assertEquals("{0=1.0, 1=0.5, 2=0.0}", zero.getClosenessCentralities().toString());
+        // reaching other nodes at distance 0 only gives an infinite closeness
+        zero.removeEdge(1, 2);
+        assertEquals("{0=Infinity, 1=0.0, 2=0.0}", zero.getClosenessCentralities().toString());
+    }
+
+    //____ SYNTHETIC GENERATORS ____
+    /**
+     * Checks the size and the shape of the generated graphs.
+     */
+    @Test
+    public void test_generators() {
+        Graph<Integer> chain = GraphGenerators.chain(1000);
+        assertEquals(1000, chain.size());
+        assertTrue(chain.isDAGraph());
+        assertEquals(1000, chain.topoSort().size());
+
+        Graph<Integer> grid = GraphGenerators.grid(10, 20);
+        assertEquals(200, grid.size());
+        assertTrue(grid.isConnected());
+        assertTrue(grid.isEulerian());
+        // 10*19 horizontal and 9*20 vertical links, both ways
+        assertEquals(2 * (190 + 180) + 1, grid.getEulerianCircuit().size());
+
+        Graph<Integer> dag = GraphGenerators.dagLayers(10, 50, 3, 1);
+        assertEquals(500, dag.size());
+        assertTrue(dag.isDAGraph());
+        TreeMap<Integer, TreeSet<Integer>> layers = dag.topoSort();
+        assertEquals(10, layers.size());
+        assertEquals(50, layers.get(9).size());
+
+        Graph<Integer> scaleFree = GraphGenerators.preferentialAttachment(1000, 2, 1);
+        assertEquals(1000, scaleFree.size());
+        assertTrue(scaleFree.isDAGraph());
+        assertEquals(1, scaleFree.countPartitions());
+        assertTrue(scaleFree.getInDegreeHistogram().getMaxDegree() > 20);
+
+        Graph<Integer> random = GraphGenerators.erdosRenyi(1000, 4, 1);
+        assertEquals(1000, random.size());
+        assertEquals(GraphGenerators.erdosRenyi(1000, 4, 1).toString(), random.toString());
+        int edges = 0;
+        for (int degree : random.getOutDegrees().keySet()) {
+            edges += degree * random.getOutDegrees().get(degree).size();
+        }
+        assertTrue(edges > 3900 && edges <= 4000);
+    }
+
+    //____ DISTANCE OVERFLOW ____
+    /**
+     * Checks a weighted distance too long for an int is reported instead of wrapping around.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void test_dijkstraOverflow() {
+        Graph<Integer> g = new Graph<Integer>();
+        g.addNode(0);
+        g.addNode(1);
+        g.addNode(2);
+        g.addEdge(0, 1, Integer.MAX_VALUE);
+        g.addEdge(1, 2, Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, (int)g.dijkstra(1).get(2));
+        g.dijkstra(0);
+    }
+}
@@ -380,8 +380,21 @@ public class Graph<T extends Comparable<T>> {
         if (fromNode != null) {
             reset(Integer.MAX_VALUE);
             distances = new TreeMap<T, Integer>();
-            // calculate dijkstra distances starting fromNode
-            fromNode.dijkstra(0);
+            // calculate dijkstra distances starting fromNode. All edges have the
+            // same length, so nodes are reached in the order of their distance and
+            // each of them needs to be queued up only once.
+            fromNode.reset(0);
+            Queue<Node<T>> queue = new LinkedList<Node<T>>();
+            queue.add(fromNode);
+            while(!queue.isEmpty()) {
+                Node<T> node = queue.remove();
+                for(Node<T> neighbor : node.getNeighbors()) {
+                    if (neighbor.getState() == Integer.MAX_VALUE) {
+                        neighbor.reset(node.getState() + 1);
+                        queue.add(neighbor);
+                    }
+                }
+            }
             // build map
             for(Node<T> n : _nodes.values()) {
                 int distance = n.getState();
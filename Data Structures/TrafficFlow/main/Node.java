@@ -222,14 +222,4 @@ public class Node<T extends Comparable<T>> implements Comparable<Node<T>> {
             _state++;
         }
     }
-    
-    public void dijkstra(int distance) {
-        if (_state <= distance) {
-            return;
-        }
-        _state = distance;
-        for(Node<T> neighbor : _edges.values()) {
-            neighbor.dijkstra(distance+1);
-        }
-    }
 }
\ No newline at end of file